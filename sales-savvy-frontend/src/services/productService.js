@@ -5,20 +5,16 @@ export const productService = {
   getAllProducts: async () => {
     try {
       console.log('🔄 Fetching all products...')
-      const response = await api.get('/products')
-      console.log('✅ Products API response:', response)
-      
-      let products = []
-      
-      if (Array.isArray(response.data)) {
-        products = response.data
-      } else if (response.data && Array.isArray(response.data.products)) {
-        products = response.data.products
-      } else if (Array.isArray(response)) {
-        products = response
-      } else if (response && Array.isArray(response.products)) {
-        products = response.products
-      }
+      // The listing is keyset-paginated; this view filters the full catalog client-side, so follow the cursor
+      const products = []
+      let cursor = null
+      do {
+        const query = cursor ? `?limit=100&cursor=${encodeURIComponent(cursor)}` : '?limit=100'
+        const response = await api.get(`/products${query}`)
+        const page = Array.isArray(response?.products) ? response.products : []
+        products.push(...page)
+        cursor = response?.nextCursor || null
+      } while (cursor)
       
       console.log(`✅ Found ${products.length} products`)
       return products
@@ -2,8 +2,10 @@ package com.example.sales_savy;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SalesSavyApplication {
     public static void main(String[] args) {
         SpringApplication.run(SalesSavyApplication.class, args);
@@ -0,0 +1,7 @@
+package com.example.sales_savy.config;
+
+public enum AccessLevel {
+    PUBLIC,
+    AUTHENTICATED,
+    ADMIN
+}
@@ -1,6 +1,11 @@
 package com.example.sales_savy.config;
 
+import com.example.sales_savy.dto.TokenPrincipal;
+import com.example.sales_savy.dto.UserPrincipal;
 import com.example.sales_savy.service.AuthService;
+import com.example.sales_savy.service.TokenRevocationService;
+import com.example.sales_savy.service.TokenVerificationService;
+import com.example.sales_savy.service.UserPrincipalCache;
 import com.example.sales_savy.model.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,6 +23,18 @@ public class AuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private TokenVerificationService tokenVerificationService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private RoutePolicyRegistry routePolicyRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -27,8 +44,12 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         
         System.out.println("🔐 Authentication Filter - Processing: " + method + " " + path);
         
+        // One trie lookup decides public / authenticated / admin for this route
+        AccessLevel accessLevel = routePolicyRegistry.resolve(method, path);
+        request.setAttribute(RoutePolicyRegistry.ACCESS_LEVEL_ATTRIBUTE, accessLevel);
+        
         // Skip authentication for public endpoints
-        if (isPublicEndpoint(request)) {
+        if (accessLevel == AccessLevel.PUBLIC) {
             System.out.println("✅ Public endpoint, skipping authentication: " + path);
             filterChain.doFilter(request, response);
             return;
@@ -45,19 +66,37 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         
         try {
             System.out.println("🔐 Token found, validating...");
-            if (!authService.validateToken(token)) {
+            TokenPrincipal principal = tokenVerificationService.verify(token);
+            if (principal == null) {
                 System.out.println("❌ Token validation failed for: " + path);
                 sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token", path);
                 return;
             }
             
-            User user = authService.getUserFromToken(token);
-            if (user == null) {
+            if (tokenRevocationService.isRevoked(principal.getTokenId())) {
+                System.out.println("❌ Revoked token used for: " + path);
+                sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "Token has been revoked", path);
+                return;
+            }
+            
+            // Role and enabled come from the cached snapshot, so they stay current without a query per request
+            UserPrincipal userPrincipal = principal.getUserId() != null
+                    ? userPrincipalCache.get(principal.getUserId())
+                    : UserPrincipal.from(authService.getUserFromToken(token));
+            if (userPrincipal == null) {
                 System.out.println("❌ User not found for valid token: " + path);
                 sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "User not found", path);
                 return;
             }
             
+            if (!userPrincipal.isEnabled()) {
+                System.out.println("❌ Disabled account used token for: " + path);
+                sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "Account is disabled", path);
+                return;
+            }
+            
+            User user = toRequestUser(userPrincipal);
+            
             // ✅ Set user attributes for authorization
             request.setAttribute("authenticatedUser", user);
             request.setAttribute("userId", user.getUserId());
@@ -68,7 +107,7 @@ public class AuthenticationFilter extends OncePerRequestFilter {
                              ", Role: " + user.getRole() + ") for " + path);
             
             // ✅ Check admin endpoints authorization
-            if (path.startsWith("/api/admin/") && !"ADMIN".equals(user.getRole().name())) {
+            if (accessLevel == AccessLevel.ADMIN && !"ADMIN".equals(user.getRole().name())) {
                 System.out.println("❌ Access denied: User " + user.getUsername() + 
                                  " with role " + user.getRole() + 
                                  " tried to access admin endpoint: " + path);
@@ -89,6 +128,18 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Detached user built from the cached snapshot; carries id, username and role only.
+     */
+    private User toRequestUser(UserPrincipal principal) {
+        User user = new User();
+        user.setUserId(principal.getUserId());
+        user.setUsername(principal.getUsername());
+        user.setRole(principal.getRole());
+        user.setEnabled(principal.isEnabled());
+        return user;
+    }
+
     private String extractTokenFromRequest(HttpServletRequest request) {
         // 1. Try Authorization header first
         String authHeader = request.getHeader("Authorization");
@@ -113,20 +164,6 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private boolean isPublicEndpoint(HttpServletRequest request) {
-        String path = request.getRequestURI();
-        String method = request.getMethod();
-        
-        // ✅ FIX: Added cart debug endpoint to public endpoints
-        return path.startsWith("/api/auth/") ||
-               (path.startsWith("/api/products") && "GET".equals(method)) ||
-               path.startsWith("/api/public/") ||
-               path.equals("/api/cart/debug") || // ✅ Added cart debug endpoint
-               path.equals("/error") ||
-               path.equals("/") ||
-               "OPTIONS".equals(method); // Allow CORS preflight
-    }
-
     private void sendErrorResponse(HttpServletResponse response, int status, String message, String path) throws IOException {
         response.setStatus(status);
         response.setContentType("application/json");
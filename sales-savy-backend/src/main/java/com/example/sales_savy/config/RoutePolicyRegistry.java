@@ -0,0 +1,97 @@
+package com.example.sales_savy.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Access policy for every route, compiled once into a path-segment trie. Each node holds
+ * policies per HTTP method for the exact path ("/api/cart/debug") and for its whole
+ * subtree ("/api/admin/**"). A lookup walks the path once; method-specific rules beat
+ * method-agnostic ones, the deepest path wins, and anything unmatched requires authentication.
+ */
+@Component
+public class RoutePolicyRegistry {
+
+    /** Request attribute holding the resolved {@link AccessLevel} for controllers */
+    public static final String ACCESS_LEVEL_ATTRIBUTE = "accessLevel";
+
+    private static final String ANY_METHOD = "*";
+
+    private final Node root = new Node();
+
+    public RoutePolicyRegistry() {
+        // Public
+        register(ANY_METHOD, "/", AccessLevel.PUBLIC);
+        register(ANY_METHOD, "/error", AccessLevel.PUBLIC);
+        register(ANY_METHOD, "/api/auth/**", AccessLevel.PUBLIC);
+        register(ANY_METHOD, "/api/public/**", AccessLevel.PUBLIC);
+        register(ANY_METHOD, "/api/cart/debug", AccessLevel.PUBLIC);
+        register("GET", "/api/products/**", AccessLevel.PUBLIC);
+        register("POST", "/api/products/batch", AccessLevel.PUBLIC);
+        register("OPTIONS", "/**", AccessLevel.PUBLIC); // CORS preflight
+
+        // Admin only
+        register(ANY_METHOD, "/api/admin/**", AccessLevel.ADMIN);
+        register(ANY_METHOD, "/api/dashboard/stats", AccessLevel.ADMIN);
+    }
+
+    /**
+     * Resolve the policy for a request in a single walk of the trie.
+     */
+    public AccessLevel resolve(String method, String path) {
+        Node node = root;
+        AccessLevel methodMatch = node.subtree.get(method);
+        AccessLevel anyMatch = node.subtree.get(ANY_METHOD);
+
+        int start = 1;
+        int length = path.length();
+        while (start <= length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = length;
+            if (end > start) {
+                node = node.children.get(path.substring(start, end));
+                if (node == null) {
+                    return pick(methodMatch, anyMatch);
+                }
+                AccessLevel level = node.subtree.get(method);
+                if (level != null) methodMatch = level;
+                level = node.subtree.get(ANY_METHOD);
+                if (level != null) anyMatch = level;
+            }
+            start = end + 1;
+        }
+
+        AccessLevel exact = node.exact.get(method);
+        if (exact != null) methodMatch = exact;
+        exact = node.exact.get(ANY_METHOD);
+        if (exact != null) anyMatch = exact;
+        return pick(methodMatch, anyMatch);
+    }
+
+    // Method-specific rules win over method-agnostic ones; within each, the deepest path wins
+    private static AccessLevel pick(AccessLevel methodMatch, AccessLevel anyMatch) {
+        if (methodMatch != null) return methodMatch;
+        return anyMatch != null ? anyMatch : AccessLevel.AUTHENTICATED;
+    }
+
+    private void register(String method, String pattern, AccessLevel level) {
+        boolean subtree = pattern.endsWith("/**");
+        String path = subtree ? pattern.substring(0, pattern.length() - 3) : pattern;
+
+        Node node = root;
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        (subtree ? node.subtree : node.exact).put(method, level);
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        final Map<String, AccessLevel> exact = new HashMap<>(2);
+        final Map<String, AccessLevel> subtree = new HashMap<>(2);
+    }
+}
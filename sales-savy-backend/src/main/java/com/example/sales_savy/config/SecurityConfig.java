@@ -1,5 +1,6 @@
 package com.example.sales_savy.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -18,9 +19,40 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * BCrypt encoder whose work factor is either fixed by security.bcrypt.strength or, when that
+     * is 0, the highest cost that still hashes within security.bcrypt.target-ms on this machine.
+     * Hashes made with a lower cost are upgraded on the next successful login.
+     */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:0}") int strength,
+                                                 @Value("${security.bcrypt.target-ms:250}") long targetMillis,
+                                                 @Value("${security.bcrypt.min-strength:10}") int minStrength,
+                                                 @Value("${security.bcrypt.max-strength:14}") int maxStrength) {
+        int chosen = strength > 0 ? strength : calibrateStrength(targetMillis, minStrength, maxStrength);
+        System.out.println("🔑 BCrypt work factor: " + chosen + (strength > 0 ? " (configured)" : " (calibrated for " + targetMillis + "ms)"));
+        return new BCryptPasswordEncoder(chosen);
+    }
+
+    // Each cost step doubles the work, so time the minimum cost and extrapolate
+    private int calibrateStrength(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("warm-up");
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration-probe");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double millis = best / 1_000_000.0;
+        int chosen = minStrength;
+        while (chosen < maxStrength && millis * 2 <= targetMillis) {
+            millis *= 2;
+            chosen++;
+        }
+        return chosen;
     }
 
     @Bean
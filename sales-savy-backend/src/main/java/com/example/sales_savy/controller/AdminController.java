@@ -1,11 +1,30 @@
 package com.example.sales_savy.controller;
 
+import com.example.sales_savy.config.AccessLevel;
+import com.example.sales_savy.config.RoutePolicyRegistry;
+import com.example.sales_savy.dto.BulkProductUpdate;
 import com.example.sales_savy.model.User;
 import com.example.sales_savy.model.Role;
 import com.example.sales_savy.service.UserService;
 import com.example.sales_savy.service.OrderService;
-import com.example.sales_savy.service.AuthService;
 import com.example.sales_savy.service.AdminService;
+import com.example.sales_savy.service.CatalogResponseCache;
+import com.example.sales_savy.service.CatalogSnapshotService;
+import com.example.sales_savy.service.CoPurchaseRecommender;
+import com.example.sales_savy.service.ExpiredTokenPurgeService;
+import com.example.sales_savy.service.LoginRateLimiter;
+import com.example.sales_savy.service.PasswordHashingService;
+import com.example.sales_savy.service.ProductBulkUpdateService;
+import com.example.sales_savy.service.ProductImportService;
+import com.example.sales_savy.service.ProductSalesTracker;
+import com.example.sales_savy.service.ProductSearchIndex;
+import com.example.sales_savy.service.ProductSuggestionIndex;
+import com.example.sales_savy.service.ProductViewCounter;
+import com.example.sales_savy.service.TokenIssueWriter;
+import com.example.sales_savy.service.TokenRevocationService;
+import com.example.sales_savy.service.TokenVerificationService;
+import com.example.sales_savy.service.TrendingProductsService;
+import com.example.sales_savy.service.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,34 +45,67 @@ public class AdminController {
     @Autowired 
     private OrderService orderService;
     
-    @Autowired 
-    private AuthService authService;
-    
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private TokenVerificationService tokenVerificationService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenIssueWriter tokenIssueWriter;
+
+    @Autowired
+    private ExpiredTokenPurgeService expiredTokenPurgeService;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CoPurchaseRecommender coPurchaseRecommender;
+
+    @Autowired
+    private ProductSalesTracker productSalesTracker;
+
+    @Autowired
+    private TrendingProductsService trendingProductsService;
+
+    @Autowired
+    private ProductViewCounter productViewCounter;
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    // AuthenticationFilter has already resolved this route to ADMIN and checked the role
     private User getAuthenticatedAdmin(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                System.out.println("❌ No authorization header");
-                return null;
-            }
-            
-            String token = authHeader.substring(7);
-            if (!authService.validateToken(token)) {
-                System.out.println("❌ Invalid token");
-                return null;
-            }
-
-            User user = authService.getUserFromToken(token);
-            boolean isAdmin = user != null && user.getRole() == Role.ADMIN;
-            System.out.println("🔐 Admin check - User: " + (user != null ? user.getUsername() : "null") + ", Is Admin: " + isAdmin);
-            return isAdmin ? user : null;
-        } catch (Exception e) {
-            System.err.println("❌ Error in admin authentication: " + e.getMessage());
-            return null;
-        }
+        Object user = request.getAttribute("authenticatedUser");
+        boolean isAdmin = request.getAttribute(RoutePolicyRegistry.ACCESS_LEVEL_ATTRIBUTE) == AccessLevel.ADMIN
+                && user instanceof User
+                && ((User) user).getRole() == Role.ADMIN;
+        return isAdmin ? (User) user : null;
     }
 
     @GetMapping("/users")
@@ -86,7 +138,9 @@ public class AdminController {
     }
 
     @GetMapping("/dashboard/popular-products")
-    public ResponseEntity<?> getPopularProducts(HttpServletRequest request) {
+    public ResponseEntity<?> getPopularProducts(@RequestParam(required = false) String window,
+                                                @RequestParam(defaultValue = "10") int limit,
+                                                HttpServletRequest request) {
         System.out.println("🔥 Admin popular products endpoint called");
         User admin = getAuthenticatedAdmin(request);
         if (admin == null) {
@@ -94,13 +148,114 @@ public class AdminController {
         }
 
         try {
-            List<Map<String, Object>> popularProducts = orderService.getPopularProducts(10);
+            List<Map<String, Object>> popularProducts =
+                    orderService.getPopularProducts(ProductSalesTracker.Window.parse(window), limit);
             return ResponseEntity.ok(popularProducts);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/dashboard/most-viewed")
+    public ResponseEntity<?> getMostViewedProducts(@RequestParam(defaultValue = "10") int limit,
+                                                   HttpServletRequest request) {
+        User admin = getAuthenticatedAdmin(request);
+        if (admin == null) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
+        }
+
+        return ResponseEntity.ok(productViewCounter.mostViewed(Math.min(limit, 100)));
+    }
+
+    /**
+     * In-process cache, queue and pool metrics for tuning
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<?> getMetrics(HttpServletRequest request) {
+        User admin = getAuthenticatedAdmin(request);
+        if (admin == null) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
+        }
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("tokenVerification", tokenVerificationService.getStats());
+        metrics.put("tokenRevocation", tokenRevocationService.getStats());
+        metrics.put("tokenIssueWriter", tokenIssueWriter.getStats());
+        metrics.put("tokenPurge", expiredTokenPurgeService.getStats());
+        metrics.put("userPrincipalCache", userPrincipalCache.getStats());
+        metrics.put("passwordHashing", passwordHashingService.getStats());
+        metrics.put("authRateLimiter", loginRateLimiter.getStats());
+        metrics.put("catalogSnapshot", catalogSnapshotService.getStats());
+        metrics.put("catalogResponseCache", catalogResponseCache.getStats());
+        metrics.put("productSearch", productSearchIndex.getStats());
+        metrics.put("productSuggest", productSuggestionIndex.getStats());
+        metrics.put("coPurchase", coPurchaseRecommender.getStats());
+        metrics.put("salesTracker", productSalesTracker.getStats());
+        metrics.put("trending", trendingProductsService.getStats());
+        metrics.put("productViews", productViewCounter.getStats());
+        metrics.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(metrics);
+    }
+
+    /**
+     * Stream a CSV (header row required) or NDJSON catalog from the request body into products;
+     * pass jobId to poll GET /products/import/{jobId} while the upload is still running
+     */
+    @PostMapping("/products/import")
+    public ResponseEntity<?> importProducts(@RequestParam(required = false) String format,
+                                            @RequestParam(required = false) String jobId,
+                                            HttpServletRequest request) {
+        User admin = getAuthenticatedAdmin(request);
+        if (admin == null) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
+        }
+
+        String contentType = request.getContentType();
+        String resolvedFormat = format != null ? format
+                : contentType != null && contentType.toLowerCase().contains("csv") ? "csv" : "ndjson";
+        try {
+            return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), resolvedFormat, jobId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Product import failed: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(Map.of("error", "Product import failed: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/products/import/{jobId}")
+    public ResponseEntity<?> getImportProgress(@PathVariable String jobId, HttpServletRequest request) {
+        User admin = getAuthenticatedAdmin(request);
+        if (admin == null) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
+        }
+
+        Map<String, Object> job = productImportService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Apply many stock and/or price changes in one call; each row gets its own outcome
+     */
+    @PostMapping("/products/bulk-update")
+    public ResponseEntity<?> bulkUpdateProducts(@RequestBody List<BulkProductUpdate> updates, HttpServletRequest request) {
+        User admin = getAuthenticatedAdmin(request);
+        if (admin == null) {
+            return ResponseEntity.status(403).body(Map.of("error", "Access denied"));
+        }
+
+        try {
+            return ResponseEntity.ok(productBulkUpdateService.applyUpdates(updates));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Bulk product update failed: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(Map.of("error", "Bulk update failed: " + e.getMessage()));
+        }
+    }
+
     // Add test data endpoint for debugging
     @GetMapping("/test-data")
     public ResponseEntity<?> getTestData() {
@@ -5,10 +5,13 @@ import com.example.sales_savy.model.User;
 import com.example.sales_savy.service.AuthService;
 import com.example.sales_savy.service.UserService;
 import com.example.sales_savy.service.EmailService;
+import com.example.sales_savy.service.HashingCapacityException;
+import com.example.sales_savy.service.LoginRateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.util.HashMap;
@@ -34,6 +37,9 @@ public class AuthController {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     // Debug endpoint to check all available endpoints
     @GetMapping("/debug")
     public ResponseEntity<Map<String, Object>> debug() {
@@ -128,6 +134,8 @@ public class AuthController {
             responseBody.put("role", registeredUser.getRole());
 
             return ResponseEntity.ok(responseBody);
+        } catch (HashingCapacityException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "success", false,
@@ -140,13 +148,26 @@ public class AuthController {
      * Authenticate user
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletResponse response) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request,
+                                   HttpServletResponse response) {
         try {
             System.out.println("🎯 LOGIN ENDPOINT CALLED");
-            User user = authService.authenticate(
-                    loginRequest.getUsername(),
-                    loginRequest.getPassword()
-            );
+            // Throttle before any repository lookup or password hashing
+            long retryAfter = loginRateLimiter.tryAcquire(loginRequest.getUsername(), getClientIp(request));
+            if (retryAfter > 0) {
+                return tooManyRequests(retryAfter);
+            }
+            
+            User user;
+            try {
+                user = authService.authenticate(loginRequest.getUsername(), loginRequest.getPassword());
+            } catch (HashingCapacityException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // Only failures spend the account's budget
+                loginRateLimiter.recordFailure(loginRequest.getUsername());
+                throw e;
+            }
             String token = authService.generateToken(user);
 
             // Set token in cookie
@@ -160,6 +181,8 @@ public class AuthController {
             responseBody.put("role", user.getRole());
 
             return ResponseEntity.ok(responseBody);
+        } catch (HashingCapacityException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "success", false,
@@ -242,7 +265,7 @@ public class AuthController {
      * Forgot password - Send reset email
      */
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         try {
             System.out.println("🎯 FORGOT PASSWORD ENDPOINT CALLED");
             String email = request.get("email");
@@ -254,6 +277,13 @@ public class AuthController {
                     "error", "Email is required"
                 ));
             }
+            
+            long retryAfter = loginRateLimiter.tryAcquire(email, getClientIp(httpRequest));
+            if (retryAfter > 0) {
+                return tooManyRequests(retryAfter);
+            }
+            // Every request sends mail, so each one counts against the address
+            loginRateLimiter.recordFailure(email);
 
             // Generate reset token and send email
             String resetToken = authService.generatePasswordResetToken(email);
@@ -351,6 +381,38 @@ public class AuthController {
         return null;
     }
 
+    /**
+     * Client IP; X-Forwarded-For is resolved by Tomcat's RemoteIpValve, which only honours
+     * hops added by proxies matching server.tomcat.remoteip.internal-proxies
+     */
+    private String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * 429 with Retry-After when an account or IP exceeds the attempt limit
+     */
+    private ResponseEntity<?> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(429)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(Map.of(
+                    "success", false,
+                    "error", "Too many attempts, please try again later"
+                ));
+    }
+
+    /**
+     * 503 with Retry-After when the password hashing pool is saturated
+     */
+    private ResponseEntity<?> serviceBusy(HashingCapacityException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+                ));
+    }
+
     /**
      * Set auth token in cookie
      */
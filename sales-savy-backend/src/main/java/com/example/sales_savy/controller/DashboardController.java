@@ -1,8 +1,9 @@
 package com.example.sales_savy.controller;
 
+import com.example.sales_savy.config.AccessLevel;
+import com.example.sales_savy.config.RoutePolicyRegistry;
 import com.example.sales_savy.model.User;
 import com.example.sales_savy.model.Role;
-import com.example.sales_savy.service.AuthService;
 import com.example.sales_savy.service.AdminService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,31 +21,14 @@ public class DashboardController {
     @Autowired
     private AdminService adminService;
 
-    @Autowired
-    private AuthService authService;
-
+    // AuthenticationFilter has already resolved this route to ADMIN and checked the role
     private boolean isAdmin(HttpServletRequest request) {
-        try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                System.out.println("❌ No valid authorization header");
-                return false;
-            }
-            
-            String token = authHeader.substring(7);
-            if (!authService.validateToken(token)) {
-                System.out.println("❌ Invalid token");
-                return false;
-            }
-
-            User user = authService.getUserFromToken(token);
-            boolean isAdmin = user != null && user.getRole() == Role.ADMIN;
-            System.out.println("🔐 User role check - Is Admin: " + isAdmin);
-            return isAdmin;
-        } catch (Exception e) {
-            System.err.println("❌ Error checking admin status: " + e.getMessage());
-            return false;
-        }
+        Object user = request.getAttribute("authenticatedUser");
+        boolean isAdmin = request.getAttribute(RoutePolicyRegistry.ACCESS_LEVEL_ATTRIBUTE) == AccessLevel.ADMIN
+                && user instanceof User
+                && ((User) user).getRole() == Role.ADMIN;
+        System.out.println("🔐 User role check - Is Admin: " + isAdmin);
+        return isAdmin;
     }
 
     @GetMapping("/stats")
@@ -1,12 +1,26 @@
 package com.example.sales_savy.controller;
 
+import com.example.sales_savy.dto.FacetResult;
+import com.example.sales_savy.dto.ProductPage;
+import com.example.sales_savy.dto.ProductSearchResult;
 import com.example.sales_savy.model.Product;
 import com.example.sales_savy.model.Category;
+import com.example.sales_savy.service.CatalogResponseCache;
+import com.example.sales_savy.service.CoPurchaseRecommender;
+import com.example.sales_savy.service.ProductSearchIndex;
 import com.example.sales_savy.service.ProductService;
+import com.example.sales_savy.service.ProductSuggestionIndex;
+import com.example.sales_savy.service.ProductViewCounter;
+import com.example.sales_savy.service.TrendingProductsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
@@ -19,38 +33,60 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Autowired
+    private CatalogResponseCache responseCache;
+
+    @Autowired
+    private CoPurchaseRecommender coPurchaseRecommender;
+
+    @Autowired
+    private TrendingProductsService trendingProductsService;
+
+    @Autowired
+    private ProductViewCounter productViewCounter;
+
     /**
-     * Get all products with category information
+     * List products one keyset page at a time; all=true returns the full unpaged catalog
      */
     @GetMapping
-    public ResponseEntity<?> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) String order,
+                                            @RequestParam(defaultValue = "false") boolean all,
+                                            WebRequest webRequest,
+                                            HttpServletResponse servletResponse) {
         try {
-            List<Product> products = productService.getAllProducts();
-            System.out.println("📦 Returning " + products.size() + " products");
-            
-            // Log categories for debugging
-            products.forEach(product -> {
-                if (product.getCategory() != null) {
-                    System.out.println("🎯 Product: " + product.getName() + 
-                                     " | Category: " + product.getCategory().getCategoryName() +
-                                     " | Category ID: " + product.getCategory().getCategoryId());
-                } else {
-                    System.out.println("⚠️ Product: " + product.getName() + " | No category assigned");
+            if (all) {
+                String etag = productService.getAllProductsETag();
+                if (isNotModified(webRequest, servletResponse, etag)) {
+                    return null;
                 }
-            });
-            
-            if (products.isEmpty()) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("message", "No products found");
-                response.put("products", products);
-                return ResponseEntity.ok(response);
+                responseCache.write("products:all", etag, this::unpagedBody,
+                        webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), servletResponse);
+                return null;
             }
+            // The page comes straight from the snapshot, so building it before the validator check is cheap
+            String shape = productService.getProductsPageKey(sort, order, cursor, limit);
+            ProductPage page = productService.getProductsPage(sort, order, cursor, limit);
+            String etag = productService.getProductsPageETag(shape, page);
+            if (isNotModified(webRequest, servletResponse, etag)) {
+                return null;
+            }
+            responseCache.write(shape, etag, () -> pageBody(page),
+                    webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), servletResponse);
+            return null;
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("products", products);
-            response.put("count", products.size());
-            return ResponseEntity.ok(response);
-            
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             System.err.println("❌ Error in getAllProducts: " + e.getMessage());
             Map<String, String> errorResponse = new HashMap<>();
@@ -59,50 +95,218 @@ public class ProductController {
         }
     }
 
+    private Map<String, Object> pageBody(ProductPage page) {
+        System.out.println("📦 Returning page of " + page.getProducts().size() + " products");
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", page.getProducts());
+        response.put("count", page.getProducts().size());
+        response.put("limit", page.getLimit());
+        response.put("hasMore", page.hasMore());
+        response.put("nextCursor", page.getNextCursor());
+        return response;
+    }
+
+    private Map<String, Object> unpagedBody() {
+        List<Product> products = productService.getAllProducts();
+        System.out.println("📦 Returning " + products.size() + " products (unpaged)");
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", products);
+        if (products.isEmpty()) {
+            response.put("message", "No products found");
+        } else {
+            response.put("count", products.size());
+        }
+        return response;
+    }
+
     /**
-     * Get products by category
+     * Get one page of products in a category (case-insensitive name match)
      */
     @GetMapping("/category/{categoryName}")
-    public ResponseEntity<?> getProductsByCategory(@PathVariable String categoryName) {
+    public ResponseEntity<?> getProductsByCategory(@PathVariable String categoryName,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   WebRequest webRequest,
+                                                   HttpServletResponse servletResponse) {
         try {
-            System.out.println("🎯 Fetching products for category: " + categoryName);
-            List<Product> products = productService.getAllProducts();
-            
-            // Filter products by category name
-            List<Product> filteredProducts = products.stream()
-                .filter(product -> {
-                    if (product.getCategory() == null) return false;
-                    String productCategory = product.getCategory().getCategoryName();
-                    return productCategory != null && 
-                           productCategory.equalsIgnoreCase(categoryName);
-                })
-                .toList();
-            
-            System.out.println("✅ Found " + filteredProducts.size() + " products in category: " + categoryName);
+            // Only known categories are cached, keyed by id so spellings of one name share an entry
+            Category category = productService.findCategory(categoryName).orElse(null);
+            if (category == null) {
+                return ResponseEntity.ok(categoryBody(categoryName, productService.getCategoryPage(categoryName, cursor, limit)));
+            }
+            String shape = productService.getCategoryPageKey(category, cursor, limit);
+            ProductPage page = productService.getCategoryPage(category.getCategoryName(), cursor, limit);
+            String etag = productService.getCategoryPageETag(shape, category, page);
+            if (isNotModified(webRequest, servletResponse, etag)) {
+                return null;
+            }
+            responseCache.write(shape, etag, () -> categoryBody(category.getCategoryName(), page),
+                    webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), servletResponse);
+            return null;
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            System.err.println("❌ Error fetching products by category: " + e.getMessage());
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to fetch products for category: " + categoryName);
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
+    private Map<String, Object> categoryBody(String categoryName, ProductPage page) {
+        System.out.println("✅ Returning " + page.getProducts().size() + " products in category: " + categoryName);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", page.getProducts());
+        response.put("count", page.getProducts().size());
+        response.put("total", productService.countProductsInCategory(categoryName));
+        response.put("category", categoryName);
+        response.put("limit", page.getLimit());
+        response.put("hasMore", page.hasMore());
+        response.put("nextCursor", page.getNextCursor());
+        return response;
+    }
+
+    /**
+     * Full-text search over product name and description, best matches first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(@RequestParam("q") String query,
+                                            @RequestParam(required = false) Integer page,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            ProductSearchResult result = productSearchIndex.search(query, page, limit);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("products", filteredProducts);
-            response.put("count", filteredProducts.size());
-            response.put("category", categoryName);
+            response.put("products", result.getProducts());
+            response.put("count", result.getProducts().size());
+            response.put("total", result.getTotal());
+            response.put("page", result.getPage());
+            response.put("limit", result.getLimit());
+            response.put("hasMore", result.hasMore());
+            response.put("query", query);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            System.err.println("❌ Error searching products: " + e.getMessage());
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to search products");
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
+    /**
+     * Typeahead completions for a name prefix, best sellers first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestProducts(@RequestParam("q") String prefix,
+                                             @RequestParam(required = false) Integer limit) {
+        List<Map<String, Object>> suggestions = productSuggestionIndex.suggest(prefix, limit);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("suggestions", suggestions);
+        response.put("count", suggestions.size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Filter by price band, stock and category; returns matching product ids and facet counts
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacets(@RequestParam(required = false) BigDecimal minPrice,
+                                       @RequestParam(required = false) BigDecimal maxPrice,
+                                       @RequestParam(defaultValue = "false") boolean inStock,
+                                       @RequestParam(required = false) List<Integer> categoryId,
+                                       @RequestParam(required = false) Integer buckets,
+                                       @RequestParam(required = false) Integer page,
+                                       @RequestParam(required = false) Integer limit) {
+        try {
+            FacetResult result = productService.getFacets(minPrice, maxPrice, inStock, categoryId, buckets, page, limit);
             
+            Map<String, Object> response = new HashMap<>();
+            response.put("productIds", result.getProductIds());
+            response.put("total", result.getTotal());
+            response.put("categoryCounts", result.getCategoryCounts());
+            response.put("inStockCount", result.getInStockCount());
+            response.put("priceHistogram", result.getPriceHistogram());
             return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(503).body(errorResponse);
         } catch (Exception e) {
-            System.err.println("❌ Error fetching products by category: " + e.getMessage());
+            System.err.println("❌ Error computing facets: " + e.getMessage());
             Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Failed to fetch products for category: " + categoryName);
+            errorResponse.put("error", "Failed to compute facets");
             return ResponseEntity.internalServerError().body(errorResponse);
         }
     }
 
+    /**
+     * Products with the most recent order and add-to-cart activity, highest decayed score first
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingProducts(@RequestParam(defaultValue = "10") int limit) {
+        TrendingProductsService.Trending trending = trendingProductsService.getTrending();
+        int size = Math.min(Math.max(limit, 1), trending.size());
+        
+        List<Map<String, Object>> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double score = trending.scoreAt(i);
+            productService.getProductById(trending.productIdAt(i)).ifPresent(product -> {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("product", product);
+                entry.put("score", score);
+                products.add(entry);
+            });
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", products);
+        response.put("count", products.size());
+        response.put("computedAt", trending.getComputedAtMillis());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Resolve up to catalog.batch.max-ids products in one call, e.g. ?ids=3,1,7
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<?> getProductsBatch(@RequestParam List<Integer> ids) {
+        return productsBatch(ids);
+    }
+
+    /**
+     * Same as GET /batch with the ids as a JSON array body, for lists too long for a query string
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> postProductsBatch(@RequestBody List<Integer> ids) {
+        return productsBatch(ids);
+    }
+
     /**
      * Get product by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable Integer id) {
+    public ResponseEntity<?> getProductById(@PathVariable Integer id, WebRequest webRequest,
+                                            HttpServletResponse servletResponse) {
         try {
-            return productService.getProductById(id)
-                    .map(ResponseEntity::ok)
-                    .orElse(ResponseEntity.notFound().build());
+            // Revalidated views count too; only products in the snapshot have a validator
+            String etag = productService.getProductETag(id);
+            if (isNotModified(webRequest, servletResponse, etag)) {
+                productViewCounter.recordView(id);
+                return null;
+            }
+            boolean found = responseCache.write("product:" + id, etag, () -> productService.getProductById(id).orElse(null),
+                    webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), servletResponse);
+            if (!found) {
+                return ResponseEntity.notFound().build();
+            }
+            productViewCounter.recordView(id);
+            return null;
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Product not found");
@@ -110,19 +314,46 @@ public class ProductController {
         }
     }
 
+    /**
+     * Products most often bought together with this one
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<?> getRelatedProducts(@PathVariable Integer id,
+                                                @RequestParam(required = false) Integer limit) {
+        int[] relatedIds = coPurchaseRecommender.relatedProductIds(id, limit);
+        
+        List<Product> products = new ArrayList<>(relatedIds.length);
+        for (int relatedId : relatedIds) {
+            productService.getProductById(relatedId).ifPresent(products::add);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("productId", id);
+        response.put("products", products);
+        response.put("count", products.size());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get all categories
      */
     @GetMapping("/categories")
-    public ResponseEntity<?> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(WebRequest webRequest, HttpServletResponse servletResponse) {
         try {
-            List<Category> categories = productService.getAllCategories();
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("categories", categories);
-            response.put("count", categories.size());
-            
-            return ResponseEntity.ok(response);
+            String etag = productService.getCategoriesETag();
+            if (isNotModified(webRequest, servletResponse, etag)) {
+                return null;
+            }
+            responseCache.write("categories", etag, () -> {
+                List<Category> categories = productService.getAllCategories();
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("categories", categories);
+                response.put("count", categories.size());
+                response.put("productCounts", productService.getCategoryProductCounts());
+                return response;
+            }, webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), servletResponse);
+            return null;
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to fetch categories");
@@ -160,6 +391,43 @@ public class ProductController {
         }
     }
 
+    // Results follow request order; each entry says whether the id was found
+    private ResponseEntity<?> productsBatch(List<Integer> ids) {
+        try {
+            List<Product> products = productService.getProductsByIds(ids);
+            
+            List<Map<String, Object>> results = new ArrayList<>(ids.size());
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                Product product = products.get(i);
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("id", ids.get(i));
+                entry.put("found", product != null);
+                if (product != null) {
+                    entry.put("product", product);
+                } else {
+                    missing.add(ids.get(i));
+                }
+                results.add(entry);
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", results);
+            response.put("missing", missing);
+            response.put("count", ids.size() - missing.size());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    // Answers If-None-Match against the resource's own validator; the cache sets the ETag when it writes the body
+    private boolean isNotModified(WebRequest webRequest, HttpServletResponse servletResponse, String etag) {
+        return responseCache.isNotModified(etag, webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), servletResponse);
+    }
+
     /**
      * Health check endpoint
      */
@@ -0,0 +1,25 @@
+package com.example.sales_savy.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of a bulk stock/price update. Set either stockDelta or absoluteStock (or neither),
+ * and optionally a new price.
+ */
+public class BulkProductUpdate {
+    private Integer productId;
+    private Integer stockDelta;
+    private Integer absoluteStock;
+    private BigDecimal price;
+
+    public BulkProductUpdate() {}
+    
+    public Integer getProductId() { return productId; }
+    public void setProductId(Integer productId) { this.productId = productId; }
+    public Integer getStockDelta() { return stockDelta; }
+    public void setStockDelta(Integer stockDelta) { this.stockDelta = stockDelta; }
+    public Integer getAbsoluteStock() { return absoluteStock; }
+    public void setAbsoluteStock(Integer absoluteStock) { this.absoluteStock = absoluteStock; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+}
@@ -0,0 +1,30 @@
+package com.example.sales_savy.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product ids matching a facet filter, with counts for each facet.
+ */
+public class FacetResult {
+    private final List<Integer> productIds;
+    private final int total;
+    private final Map<Integer, Integer> categoryCounts;
+    private final int inStockCount;
+    private final List<Map<String, Object>> priceHistogram;
+
+    public FacetResult(List<Integer> productIds, int total, Map<Integer, Integer> categoryCounts,
+                       int inStockCount, List<Map<String, Object>> priceHistogram) {
+        this.productIds = productIds;
+        this.total = total;
+        this.categoryCounts = categoryCounts;
+        this.inStockCount = inStockCount;
+        this.priceHistogram = priceHistogram;
+    }
+
+    public List<Integer> getProductIds() { return productIds; }
+    public int getTotal() { return total; }
+    public Map<Integer, Integer> getCategoryCounts() { return categoryCounts; }
+    public int getInStockCount() { return inStockCount; }
+    public List<Map<String, Object>> getPriceHistogram() { return priceHistogram; }
+}
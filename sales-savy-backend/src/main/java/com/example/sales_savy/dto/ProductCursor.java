@@ -0,0 +1,45 @@
+package com.example.sales_savy.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key and direction of the listing plus the (sort value, productId)
+ * of the last row returned. Encoded as URL-safe base64 so clients treat it as a token.
+ */
+public final class ProductCursor {
+    private final String sort;
+    private final boolean descending;
+    private final String value;
+    private final Integer productId;
+
+    public ProductCursor(String sort, boolean descending, String value, Integer productId) {
+        this.sort = sort;
+        this.descending = descending;
+        this.value = value;
+        this.productId = productId;
+    }
+
+    public String getSort() { return sort; }
+    public boolean isDescending() { return descending; }
+    public String getValue() { return value; }
+    public Integer getProductId() { return productId; }
+
+    public String encode() {
+        String raw = sort + "|" + (descending ? "desc" : "asc") + "|" + (value != null ? value : "") + "|" + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProductCursor(parts[0], "desc".equals(parts[1]), parts[2], Integer.valueOf(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
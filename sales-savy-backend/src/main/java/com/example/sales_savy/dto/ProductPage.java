@@ -0,0 +1,25 @@
+package com.example.sales_savy.dto;
+
+import com.example.sales_savy.model.Product;
+
+import java.util.List;
+
+/**
+ * One keyset page of products; nextCursor is null on the last page.
+ */
+public class ProductPage {
+    private final List<Product> products;
+    private final String nextCursor;
+    private final int limit;
+
+    public ProductPage(List<Product> products, String nextCursor, int limit) {
+        this.products = products;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<Product> getProducts() { return products; }
+    public String getNextCursor() { return nextCursor; }
+    public int getLimit() { return limit; }
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,28 @@
+package com.example.sales_savy.dto;
+
+import com.example.sales_savy.model.Product;
+
+import java.util.List;
+
+/**
+ * One page of search hits in relevance order, with the total number of matching products.
+ */
+public class ProductSearchResult {
+    private final List<Product> products;
+    private final int total;
+    private final int page;
+    private final int limit;
+
+    public ProductSearchResult(List<Product> products, int total, int page, int limit) {
+        this.products = products;
+        this.total = total;
+        this.page = page;
+        this.limit = limit;
+    }
+
+    public List<Product> getProducts() { return products; }
+    public int getTotal() { return total; }
+    public int getPage() { return page; }
+    public int getLimit() { return limit; }
+    public boolean hasMore() { return (long) (page + 1) * limit < total; }
+}
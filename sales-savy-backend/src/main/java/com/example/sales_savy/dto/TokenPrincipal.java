@@ -0,0 +1,41 @@
+package com.example.sales_savy.dto;
+
+import com.example.sales_savy.model.Role;
+
+/**
+ * Immutable view of a verified JWT: who the token was issued to and until when it is valid.
+ */
+public final class TokenPrincipal {
+    private final String tokenId;
+    private final Integer userId;
+    private final String username;
+    private final Role role;
+    private final long expiresAtMillis;
+
+    public TokenPrincipal(String tokenId, Integer userId, String username, Role role, long expiresAtMillis) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getTokenId() { return tokenId; }
+    public Integer getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public Role getRole() { return role; }
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenPrincipal{" +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
+                ", role=" + role +
+                '}';
+    }
+}
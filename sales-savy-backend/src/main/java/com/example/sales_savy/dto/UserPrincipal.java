@@ -0,0 +1,40 @@
+package com.example.sales_savy.dto;
+
+import com.example.sales_savy.model.Role;
+import com.example.sales_savy.model.User;
+
+/**
+ * Small immutable snapshot of a user, enough to authorize a request without loading the entity.
+ */
+public final class UserPrincipal {
+    private final Integer userId;
+    private final String username;
+    private final Role role;
+    private final boolean enabled;
+
+    public UserPrincipal(Integer userId, String username, Role role, boolean enabled) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.enabled = enabled;
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getUserId(), user.getUsername(), user.getRole(), user.isEnabled());
+    }
+
+    public Integer getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public Role getRole() { return role; }
+    public boolean isEnabled() { return enabled; }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{" +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
+                ", role=" + role +
+                ", enabled=" + enabled +
+                '}';
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "jwt_tokens")
+@Table(name = "jwt_tokens", indexes = {
+    @Index(name = "idx_jwt_tokens_jti", columnList = "jti"),
+    @Index(name = "idx_jwt_tokens_expires_at", columnList = "expires_at")
+})
 public class JWTToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,12 +20,17 @@ public class JWTToken {
     @Column(nullable = false, length = 500)
     private String token;
 
+    @Column(length = 36)
+    private String jti;
+
     @Column(nullable = false)
     private LocalDateTime expiresAt;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    private LocalDateTime revokedAt;
+
     // Constructors
     public JWTToken() {}
 
@@ -42,9 +50,15 @@ public class JWTToken {
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
 
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+
     public LocalDateTime getExpiresAt() { return expiresAt; }
     public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
 }
\ No newline at end of file
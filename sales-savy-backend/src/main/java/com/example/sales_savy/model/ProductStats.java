@@ -0,0 +1,39 @@
+package com.example.sales_savy.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregated per-product counters; rows are upserted in batches by ProductViewCounter.
+ */
+@Entity
+@Table(name = "product_stats")
+public class ProductStats {
+    @Id
+    @Column(name = "product_id")
+    private Integer productId;
+
+    @Column(name = "view_count", nullable = false)
+    private Long viewCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructors
+    public ProductStats() {}
+
+    public ProductStats(Integer productId, Long viewCount) {
+        this.productId = productId;
+        this.viewCount = viewCount;
+    }
+
+    // Getters and Setters
+    public Integer getProductId() { return productId; }
+    public void setProductId(Integer productId) { this.productId = productId; }
+
+    public Long getViewCount() { return viewCount; }
+    public void setViewCount(Long viewCount) { this.viewCount = viewCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
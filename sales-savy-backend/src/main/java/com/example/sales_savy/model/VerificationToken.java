@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "verification_tokens")
+@Table(name = "verification_tokens", indexes = {
+    @Index(name = "idx_verification_tokens_expires_at", columnList = "expires_at")
+})
 public class VerificationToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -7,16 +7,26 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface JWTTokenRepository extends JpaRepository<JWTToken, Integer> {
     Optional<JWTToken> findByToken(String token);
     
+    // Revoked tokens that are still within their lifetime, used to rebuild the revocation set
+    List<JWTToken> findByRevokedAtIsNotNullAndExpiresAtAfter(LocalDateTime now);
+    
     @Transactional
     @Modifying
     void deleteByToken(String token);
     
+    @Transactional
+    @Modifying
+    @Query("UPDATE JWTToken j SET j.revokedAt = :revokedAt WHERE j.jti = :jti")
+    int markRevokedByJti(@Param("jti") String jti, @Param("revokedAt") LocalDateTime revokedAt);
+    
     @Transactional
     @Modifying
     @Query("DELETE FROM JWTToken j WHERE j.user.userId = :userId")
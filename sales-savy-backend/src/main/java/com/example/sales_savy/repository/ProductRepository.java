@@ -1,13 +1,56 @@
 package com.example.sales_savy.repository;
 
 import com.example.sales_savy.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
     List<Product> findByCategoryCategoryId(Integer categoryId);
     List<Product> findByCategoryCategoryName(String categoryName);
+    long countByCategoryCategoryName(String categoryName);
+    
+    // Category browsing walks idx_categories_category_name, then the category foreign key index in
+    // product_id order; the column collation makes the name match case-insensitive
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c WHERE c.categoryName = :name AND p.productId > :afterId")
+    List<Product> findCategoryPage(@Param("name") String categoryName, @Param("afterId") Integer afterId, Pageable pageable);
+    
+    // Keyset pages: ordering and page size come from the Pageable, which never triggers a count query
+    // for a List return type. Each "after" query continues strictly past the (sort value, productId) cursor.
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category")
+    List<Product> findPage(Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.productId > :id")
+    List<Product> findPageAfterId(@Param("id") Integer id, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.productId < :id")
+    List<Product> findPageBeforeId(@Param("id") Integer id, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.price IS NOT NULL")
+    List<Product> findPricedPage(Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.createdAt IS NOT NULL")
+    List<Product> findDatedPage(Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category " +
+           "WHERE p.price > :price OR (p.price = :price AND p.productId > :id)")
+    List<Product> findPageAfterPrice(@Param("price") BigDecimal price, @Param("id") Integer id, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category " +
+           "WHERE p.price < :price OR (p.price = :price AND p.productId < :id)")
+    List<Product> findPageBeforePrice(@Param("price") BigDecimal price, @Param("id") Integer id, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category " +
+           "WHERE p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.productId > :id)")
+    List<Product> findPageAfterCreatedAt(@Param("createdAt") LocalDateTime createdAt, @Param("id") Integer id, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category " +
+           "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.productId < :id)")
+    List<Product> findPageBeforeCreatedAt(@Param("createdAt") LocalDateTime createdAt, @Param("id") Integer id, Pageable pageable);
     
     // Fixed count method - use the built-in count() method
     @Override
@@ -2,12 +2,28 @@ package com.example.sales_savy.repository;
 
 import com.example.sales_savy.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    
+    // Username-or-email in one statement over the unique username/email indexes; a username match wins
+    @Query("SELECT u FROM User u WHERE u.username = :login OR u.email = :login " +
+           "ORDER BY CASE WHEN u.username = :login THEN 0 ELSE 1 END")
+    List<User> findByLogin(@Param("login") String login);
+    
+    // Compare-and-set so a rehash never overwrites a password changed in the meantime
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.userId = :userId AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("userId") Integer userId, @Param("oldHash") String oldHash,
+                                  @Param("newHash") String newHash);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     
@@ -1,5 +1,6 @@
 package com.example.sales_savy.service;
 
+import com.example.sales_savy.dto.TokenPrincipal;
 import com.example.sales_savy.model.User;
 import com.example.sales_savy.model.JWTToken;
 import com.example.sales_savy.model.VerificationToken;
@@ -7,17 +8,12 @@ import com.example.sales_savy.repository.UserRepository;
 import com.example.sales_savy.repository.JWTTokenRepository;
 import com.example.sales_savy.repository.VerificationTokenRepository;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.Optional;
@@ -26,13 +22,14 @@ import java.util.UUID;
 @Service
 public class AuthService {
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
-
     @Autowired private UserRepository userRepository;
     @Autowired private JWTTokenRepository jwtTokenRepository;
     @Autowired private VerificationTokenRepository verificationTokenRepository;
-    @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private PasswordHashingService passwordHashingService;
+    @Autowired private TokenVerificationService tokenVerificationService;
+    @Autowired private TokenRevocationService tokenRevocationService;
+    @Autowired private TokenIssueWriter tokenIssueWriter;
+    @Autowired private UserPrincipalCache userPrincipalCache;
 
     // -------------------------
     // Authentication - FIXED VERSION
@@ -40,15 +37,10 @@ public class AuthService {
     public User authenticate(String username, String password) {
         System.out.println("🔐 AUTHENTICATE CALLED - Username/Email: " + username);
         
-        // First try username
-        Optional<User> userOptional = userRepository.findByUsername(username);
-        System.out.println("🔍 User found by username '" + username + "': " + userOptional.isPresent());
-        
-        // If not found by username, try email
-        if (userOptional.isEmpty()) {
-            userOptional = userRepository.findByEmail(username);
-            System.out.println("🔍 User found by email '" + username + "': " + userOptional.isPresent());
-        }
+        // Single lookup by username or email
+        String login = username != null ? username.trim() : "";
+        Optional<User> userOptional = userRepository.findByLogin(login).stream().findFirst();
+        System.out.println("🔍 User found by username/email '" + login + "': " + userOptional.isPresent());
 
         if (userOptional.isEmpty()) {
             System.out.println("❌ No user found with username/email: " + username);
@@ -62,7 +54,7 @@ public class AuthService {
         System.out.println("🔑 Stored password hash: " + user.getPassword());
         System.out.println("🔑 Provided password: " + password);
         
-        boolean passwordMatches = passwordEncoder.matches(password, user.getPassword());
+        boolean passwordMatches = passwordHashingService.matches(password, user.getPassword());
         System.out.println("🔑 Password matches: " + passwordMatches);
         
         if (!passwordMatches) {
@@ -75,6 +67,8 @@ public class AuthService {
             throw new RuntimeException("Account is disabled");
         }
 
+        passwordHashingService.rehashIfOutdated(user.getUserId(), password, user.getPassword());
+
         System.out.println("✅ Authentication successful for user: " + user.getUsername());
         return user;
     }
@@ -84,22 +78,23 @@ public class AuthService {
     // -------------------------
     public String generateToken(User user) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-
+            String jti = UUID.randomUUID().toString();
             String token = Jwts.builder()
+                    .setId(jti)
                     .setSubject(user.getUsername())
                     .claim("userId", user.getUserId())
                     .claim("role", user.getRole().name())
                     .setIssuedAt(new Date())
                     .setExpiration(new Date(System.currentTimeMillis() + 3600000)) // 1 hour
-                    .signWith(key, SignatureAlgorithm.HS512)
+                    .signWith(tokenVerificationService.getSigningKey(), SignatureAlgorithm.HS512)
                     .compact();
 
             JWTToken jwtToken = new JWTToken();
             jwtToken.setUser(user);
             jwtToken.setToken(token);
+            jwtToken.setJti(jti);
             jwtToken.setExpiresAt(LocalDateTime.now().plusHours(1));
-            jwtTokenRepository.save(jwtToken);
+            tokenIssueWriter.submit(jwtToken);
 
             System.out.println("✅ Token generated for user: " + user.getUsername());
             return token;
@@ -109,66 +104,66 @@ public class AuthService {
     }
 
     public boolean validateToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            boolean isValid = !claims.getExpiration().before(new Date());
-            System.out.println("🔐 Token validation - Valid: " + isValid);
-            return isValid;
+        boolean isValid = verifyActiveToken(token) != null;
+        System.out.println("🔐 Token validation - Valid: " + isValid);
+        return isValid;
+    }
 
-        } catch (Exception e) {
-            System.out.println("❌ Token validation failed: " + e.getMessage());
-            return false;
+    /**
+     * Verified principal for a token that has not been revoked, or null.
+     */
+    public TokenPrincipal verifyActiveToken(String token) {
+        TokenPrincipal principal = tokenVerificationService.verify(token);
+        if (principal == null || tokenRevocationService.isRevoked(principal.getTokenId())) {
+            return null;
         }
+        return principal;
     }
 
     public void logout(String token) {
-        jwtTokenRepository.findByToken(token).ifPresent(jwtTokenRepository::delete);
+        TokenPrincipal principal = tokenVerificationService.verify(token);
+        if (principal != null) {
+            tokenRevocationService.revoke(principal.getTokenId(), principal.getExpiresAtMillis());
+        }
+        tokenVerificationService.invalidate(token);
+
+        // Keep the row, marked revoked, so the revocation set can be rebuilt after a restart.
+        // The row may still be queued in the write-behind writer, which applies the mark on insert.
+        if (principal != null && !principal.getTokenId().equals(TokenVerificationService.hash(token))) {
+            tokenIssueWriter.markRevoked(principal.getTokenId(), LocalDateTime.now());
+        } else {
+            jwtTokenRepository.findByToken(token).ifPresent(jwtToken -> {
+                jwtToken.setRevokedAt(LocalDateTime.now());
+                jwtTokenRepository.save(jwtToken);
+            });
+        }
         System.out.println("✅ Token invalidated for logout");
     }
 
     public User getUserFromToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            Integer userId = claims.get("userId", Integer.class);
-            if (userId != null) {
-                return userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("User not found for ID: " + userId));
-            }
-
-            String username = claims.getSubject();
-            return userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found for username: " + username));
+        TokenPrincipal principal = verifyActiveToken(token);
+        if (principal == null) {
+            throw new RuntimeException("Invalid token: verification failed or token revoked");
+        }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Invalid token: " + e.getMessage());
+        Integer userId = principal.getUserId();
+        if (userId != null) {
+            return userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found for ID: " + userId));
         }
+
+        String username = principal.getUsername();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found for username: " + username));
     }
 
     public Integer getUserIdFromToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            Integer userId = claims.get("userId", Integer.class);
-            if (userId != null) return userId;
+            TokenPrincipal principal = verifyActiveToken(token);
+            if (principal == null) return null;
+            if (principal.getUserId() != null) return principal.getUserId();
 
-            String username = claims.getSubject();
+            String username = principal.getUsername();
             User user = userRepository.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("User not found for username: " + username));
             return user.getUserId();
@@ -220,8 +215,9 @@ public class AuthService {
         }
 
         User user = verificationToken.getUser();
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.encode(newPassword));
         userRepository.save(user);
+        userPrincipalCache.invalidate(user.getUserId());
 
         verificationTokenRepository.delete(verificationToken);
         System.out.println("✅ Password reset successfully for user: " + user.getEmail());
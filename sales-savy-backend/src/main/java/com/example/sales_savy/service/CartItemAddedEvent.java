@@ -0,0 +1,20 @@
+package com.example.sales_savy.service;
+
+/**
+ * Published when a shopper adds a product to their cart; delivered after the cart change commits.
+ */
+public class CartItemAddedEvent {
+    private final int productId;
+    private final int quantity;
+    private final long addedAtMillis;
+
+    public CartItemAddedEvent(int productId, int quantity, long addedAtMillis) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.addedAtMillis = addedAtMillis;
+    }
+
+    public int getProductId() { return productId; }
+    public int getQuantity() { return quantity; }
+    public long getAddedAtMillis() { return addedAtMillis; }
+}
@@ -7,6 +7,7 @@ import com.example.sales_savy.repository.CartItemRepository;
 import com.example.sales_savy.repository.UserRepository;
 import com.example.sales_savy.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +29,9 @@ public class CartService {
     @Autowired 
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public CartItem addToCart(Integer userId, Integer productId, Integer quantity) {
         System.out.println("🛒 Adding to cart - User: " + userId + ", Product: " + productId + ", Quantity: " + quantity);
         
@@ -49,6 +53,7 @@ public class CartService {
                 .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
 
         System.out.println("✅ Found user: " + user.getUsername() + " and product: " + product.getName());
+        eventPublisher.publishEvent(new CartItemAddedEvent(productId, quantity, System.currentTimeMillis()));
 
         // Check if item already exists in cart
         Optional<CartItem> existingItem = cartItemRepository.findByUserAndProduct(user, product);
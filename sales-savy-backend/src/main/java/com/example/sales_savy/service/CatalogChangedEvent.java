@@ -0,0 +1,45 @@
+package com.example.sales_savy.service;
+
+import java.util.List;
+
+/**
+ * Published after products, categories or stock levels change. Listeners that
+ * keep in-memory views of the catalog use it to refresh; an empty id list means
+ * the change is not limited to specific products.
+ */
+public class CatalogChangedEvent {
+
+    public enum Change {
+        PRODUCTS_ADDED,
+        PRODUCTS_UPDATED,
+        STOCK_UPDATED,
+        PRICES_UPDATED,
+        CATEGORIES_UPDATED
+    }
+
+    private final Change change;
+    private final List<Integer> productIds;
+
+    public CatalogChangedEvent(Change change, List<Integer> productIds) {
+        this.change = change;
+        this.productIds = productIds != null ? List.copyOf(productIds) : List.of();
+    }
+
+    public static CatalogChangedEvent forProducts(Change change, List<Integer> productIds) {
+        return new CatalogChangedEvent(change, productIds);
+    }
+
+    public static CatalogChangedEvent forCatalog(Change change) {
+        return new CatalogChangedEvent(change, List.of());
+    }
+
+    public Change getChange() { return change; }
+    public List<Integer> getProductIds() { return productIds; }
+
+    /**
+     * True when product names or descriptions may have changed, not just stock or categories.
+     */
+    public boolean affectsProductText() {
+        return change == Change.PRODUCTS_ADDED || change == Change.PRODUCTS_UPDATED;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.dto.FacetResult;
+import com.example.sales_savy.model.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primitive-array facet index built alongside each {@link CatalogSnapshot}. Products are
+ * addressed by ordinal (their position in product id order); prices are kept in minor units
+ * both per ordinal and as a sorted array for range lookups, stock as a bitset and categories
+ * as per-category ordinal arrays. Queries only combine bitsets and never touch entities.
+ */
+public final class CatalogFacetIndex {
+
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int NO_CATEGORY = -1;
+
+    private final int size;
+    private final int[] productIds;
+    private final long[] priceByOrdinal;
+    private final long[] sortedPrices;
+    private final int[] ordinalsByPrice;
+    private final BitSet inStock;
+    private final int[] categoryByOrdinal;
+    private final Map<Integer, int[]> ordinalsByCategory;
+
+    /**
+     * @param products products in ascending id order
+     */
+    CatalogFacetIndex(List<Product> products) {
+        this.size = products.size();
+        this.productIds = new int[size];
+        this.priceByOrdinal = new long[size];
+        this.inStock = new BitSet(size);
+        this.categoryByOrdinal = new int[size];
+
+        Map<Integer, List<Integer>> byCategory = new HashMap<>();
+        int priced = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Product product = products.get(ordinal);
+            productIds[ordinal] = product.getProductId();
+            priceByOrdinal[ordinal] = product.getPrice() != null ? toMinorUnits(product.getPrice()) : NO_PRICE;
+            if (product.getPrice() != null) {
+                priced++;
+            }
+            if (product.getStock() != null && product.getStock() > 0) {
+                inStock.set(ordinal);
+            }
+            int categoryId = product.getCategory() != null ? product.getCategory().getCategoryId() : NO_CATEGORY;
+            categoryByOrdinal[ordinal] = categoryId;
+            if (categoryId != NO_CATEGORY) {
+                byCategory.computeIfAbsent(categoryId, id -> new ArrayList<>()).add(ordinal);
+            }
+        }
+
+        // Stable sort, so equal prices stay in product id order
+        Integer[] pricedOrdinals = new Integer[priced];
+        int next = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (priceByOrdinal[ordinal] != NO_PRICE) {
+                pricedOrdinals[next++] = ordinal;
+            }
+        }
+        Arrays.sort(pricedOrdinals, (a, b) -> Long.compare(priceByOrdinal[a], priceByOrdinal[b]));
+        this.ordinalsByPrice = new int[priced];
+        this.sortedPrices = new long[priced];
+        for (int i = 0; i < priced; i++) {
+            ordinalsByPrice[i] = pricedOrdinals[i];
+            sortedPrices[i] = priceByOrdinal[pricedOrdinals[i]];
+        }
+
+        Map<Integer, int[]> categories = new HashMap<>(byCategory.size() * 2);
+        byCategory.forEach((categoryId, ordinals) -> categories.put(categoryId, ordinals.stream().mapToInt(Integer::intValue).toArray()));
+        this.ordinalsByCategory = categories;
+    }
+
+    /**
+     * Apply the filters and compute facet counts. Each facet is counted with every filter
+     * except its own, so a shopper sees how many results picking another value would give.
+     *
+     * @param minPrice inclusive lower bound, or null
+     * @param maxPrice inclusive upper bound, or null
+     * @param categoryIds categories to include (any of), or empty for all
+     */
+    public FacetResult query(BigDecimal minPrice, BigDecimal maxPrice, boolean inStockOnly,
+                             Collection<Integer> categoryIds, int buckets, int offset, int limit) {
+        BitSet priceMatch = priceRange(minPrice, maxPrice);
+        BitSet stockMatch = inStockOnly ? inStock : all();
+        BitSet categoryMatch = categories(categoryIds);
+
+        BitSet matches = and(priceMatch, stockMatch, categoryMatch);
+        int total = matches.cardinality();
+
+        List<Integer> ids = new ArrayList<>(Math.min(limit, total));
+        int skipped = 0;
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && ids.size() < limit; ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (skipped++ >= offset) {
+                ids.add(productIds[ordinal]);
+            }
+        }
+
+        Map<Integer, Integer> categoryCounts = new LinkedHashMap<>();
+        BitSet categoryBase = and(priceMatch, stockMatch, null);
+        for (int ordinal = categoryBase.nextSetBit(0); ordinal >= 0; ordinal = categoryBase.nextSetBit(ordinal + 1)) {
+            if (categoryByOrdinal[ordinal] != NO_CATEGORY) {
+                categoryCounts.merge(categoryByOrdinal[ordinal], 1, Integer::sum);
+            }
+        }
+
+        BitSet stockBase = and(priceMatch, categoryMatch, null);
+        int inStockCount = and(stockBase, inStock, null).cardinality();
+
+        return new FacetResult(ids, total, categoryCounts, inStockCount,
+                priceHistogram(and(stockMatch, categoryMatch, null), buckets));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long estimatedBytes() {
+        return size * (4L + 8L + 8L + 4L + 4L + 4L) + size / 8;
+    }
+
+    private List<Map<String, Object>> priceHistogram(BitSet base, int buckets) {
+        List<Map<String, Object>> histogram = new ArrayList<>();
+        if (sortedPrices.length == 0 || buckets <= 0) {
+            return histogram;
+        }
+
+        long low = sortedPrices[0];
+        long high = sortedPrices[sortedPrices.length - 1];
+        long width = Math.max(1, (high - low) / buckets + 1);
+        int[] counts = new int[buckets];
+        for (int ordinal = base.nextSetBit(0); ordinal >= 0; ordinal = base.nextSetBit(ordinal + 1)) {
+            long price = priceByOrdinal[ordinal];
+            if (price != NO_PRICE) {
+                counts[(int) Math.min(buckets - 1, (price - low) / width)]++;
+            }
+        }
+        for (int i = 0; i < buckets; i++) {
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("from", fromMinorUnits(low + i * width));
+            bucket.put("to", fromMinorUnits(low + (i + 1) * width - 1));
+            bucket.put("count", counts[i]);
+            histogram.add(bucket);
+        }
+        return histogram;
+    }
+
+    private BitSet priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return all();
+        }
+        int from = minPrice != null ? lowerBound(toMinorUnits(minPrice)) : 0;
+        int to = maxPrice != null ? upperBound(toMinorUnits(maxPrice)) : sortedPrices.length;
+
+        BitSet bits = new BitSet(size);
+        for (int i = from; i < to; i++) {
+            bits.set(ordinalsByPrice[i]);
+        }
+        return bits;
+    }
+
+    private BitSet categories(Collection<Integer> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return all();
+        }
+        BitSet bits = new BitSet(size);
+        for (Integer categoryId : categoryIds) {
+            int[] ordinals = ordinalsByCategory.get(categoryId);
+            if (ordinals != null) {
+                for (int ordinal : ordinals) {
+                    bits.set(ordinal);
+                }
+            }
+        }
+        return bits;
+    }
+
+    private BitSet all() {
+        BitSet bits = new BitSet(size);
+        bits.set(0, size);
+        return bits;
+    }
+
+    private static BitSet and(BitSet first, BitSet second, BitSet third) {
+        BitSet result = (BitSet) first.clone();
+        result.and(second);
+        if (third != null) {
+            result.and(third);
+        }
+        return result;
+    }
+
+    // First index whose price is >= value
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First index whose price is > value
+    private int upperBound(long value) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+}
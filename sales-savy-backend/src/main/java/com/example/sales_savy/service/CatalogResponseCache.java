@@ -0,0 +1,269 @@
+package com.example.sales_savy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully encoded JSON (and gzip) bodies for catalog responses, keyed by query shape and
+ * tagged with the ETag of the resource they were rendered for. A hit is written straight
+ * to the servlet output stream; an entry whose tag no longer matches is re-rendered, so a
+ * catalog write only costs the responses whose content it changed. The cache is bounded
+ * both by entry count and by total encoded bytes, evicting the least recently used entries.
+ */
+@Service
+public class CatalogResponseCache {
+
+    // The gzip variant is a different byte sequence, so it gets its own strong tag
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.response-cache.max-entries:2000}")
+    private int maxEntries;
+
+    @Value("${catalog.response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${catalog.response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Sum of Entry.size() over entries; only changed in store()
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder gzipResponses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder uncacheable = new LongAdder();
+
+    /**
+     * Answer a conditional GET with 304 if ifNoneMatch names either encoding's variant of etag.
+     * A null etag (no snapshot to vouch for the content) never matches.
+     */
+    public boolean isNotModified(String etag, String ifNoneMatch, HttpServletResponse response) {
+        String matched = matchingVariant(etag, ifNoneMatch);
+        if (matched == null) {
+            return false;
+        }
+        notModified.increment();
+        response.setStatus(HttpStatus.NOT_MODIFIED.value());
+        response.setHeader(HttpHeaders.ETAG, quote(matched));
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return true;
+    }
+
+    /**
+     * Write the response for the given query shape and resource ETag, rendering it with body on a
+     * miss. The ETag header is set here, with the -gzip suffix when the gzip variant is sent.
+     *
+     * @return false if body produced null and nothing was written
+     */
+    public boolean write(String shape, String etag, Supplier<Object> body, String acceptEncoding,
+                         HttpServletResponse response) throws IOException {
+        Entry entry = etag != null ? entries.get(shape) : null;
+
+        if (entry != null && entry.etag.equals(etag)) {
+            hits.increment();
+            entry.lastAccess = System.nanoTime();
+        } else {
+            misses.increment();
+            Object value = body.get();
+            if (value == null) {
+                return false;
+            }
+            entry = render(etag, value);
+            store(shape, entry);
+        }
+
+        boolean gzip = entry.gzip != null && acceptsGzip(acceptEncoding);
+        byte[] bytes = gzip ? entry.gzip : entry.json;
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, quote(gzip ? etag + GZIP_SUFFIX : etag));
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            gzipResponses.increment();
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+        response.flushBuffer();
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("bytes", totalBytes.get());
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("notModified", notModified.sum());
+        stats.put("gzipResponses", gzipResponses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("uncacheable", uncacheable.sum());
+        return stats;
+    }
+
+    /**
+     * Whether gzip is acceptable per RFC 9110: an explicit gzip entry wins over *, and q=0 refuses.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        double quality = gzipQuality != null ? gzipQuality : anyQuality != null ? anyQuality : 0;
+        return quality > 0;
+    }
+
+    /**
+     * The variant of etag (plain or -gzip) listed in an If-None-Match header, or null. Uses the
+     * weak comparison If-None-Match calls for, so W/ prefixes added by proxies still match.
+     */
+    static String matchingVariant(String etag, String ifNoneMatch) {
+        if (etag == null || ifNoneMatch == null) {
+            return null;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return etag;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (tag.equals(etag) || tag.equals(etag + GZIP_SUFFIX)) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    private static String quote(String etag) {
+        return "\"" + etag + "\"";
+    }
+
+    // Misses only; synchronized so the byte total stays exact
+    private synchronized void store(String shape, Entry entry) {
+        // Nothing to key on without a validator; the body was still rendered once for this request
+        if (entry.etag == null || entry.size() > maxBytes) {
+            uncacheable.increment();
+            return;
+        }
+        Entry replaced = entries.get(shape);
+        long bytesAfter = totalBytes.get() + entry.size() - (replaced != null ? replaced.size() : 0);
+        if ((replaced == null && entries.size() >= maxEntries) || bytesAfter > maxBytes) {
+            evictLeastRecentlyUsed(maxEntries - maxEntries / 10 - 1, maxBytes - maxBytes / 10 - entry.size());
+            replaced = entries.get(shape);
+            bytesAfter = totalBytes.get() + entry.size() - (replaced != null ? replaced.size() : 0);
+            if ((replaced == null && entries.size() >= maxEntries) || bytesAfter > maxBytes) {
+                uncacheable.increment();
+                return;
+            }
+        }
+        entries.put(shape, entry);
+        totalBytes.set(bytesAfter);
+    }
+
+    // Drops entries oldest access first until both targets are met, leaving headroom for the next misses
+    private void evictLeastRecentlyUsed(int targetEntries, long targetBytes) {
+        List<Map.Entry<String, Entry>> byAccess = new ArrayList<>(entries.entrySet());
+        byAccess.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (Map.Entry<String, Entry> oldest : byAccess) {
+            if (entries.size() <= targetEntries && totalBytes.get() <= targetBytes) {
+                break;
+            }
+            if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                totalBytes.addAndGet(-oldest.getValue().size());
+                evictions.increment();
+            }
+        }
+    }
+
+    private Entry render(String etag, Object value) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        byte[] gzip = null;
+        if (json.length >= gzipMinBytes) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(json);
+            }
+            gzip = buffer.toByteArray();
+        }
+        return new Entry(etag, json, gzip);
+    }
+
+    private static final class Entry {
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzip;
+        // Only read for eviction order, so a racy update is fine
+        private volatile long lastAccess = System.nanoTime();
+
+        Entry(String etag, byte[] json, byte[] gzip) {
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        long size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
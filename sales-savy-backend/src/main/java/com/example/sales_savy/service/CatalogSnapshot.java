@@ -0,0 +1,309 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.model.Category;
+import com.example.sales_savy.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable view of the catalog at one point in time. Lists are sorted once at build
+ * time so keyset pages can be cut with a binary search; the snapshot is never modified
+ * after construction and is replaced wholesale on rebuild.
+ */
+public final class CatalogSnapshot {
+
+    static final Comparator<Product> BY_ID = Comparator.comparing(Product::getProductId);
+    static final Comparator<Product> BY_PRICE = Comparator.comparing(Product::getPrice).thenComparing(BY_ID);
+    static final Comparator<Product> BY_CREATED_AT = Comparator.comparing(Product::getCreatedAt).thenComparing(BY_ID);
+
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long version;
+    private final long builtAtMillis;
+    private final long buildMillis;
+    private final List<Product> products;
+    private final List<Product> productsByPrice;
+    private final List<Product> productsByCreatedAt;
+    private final Map<Integer, Product> productsById;
+    private final List<Category> categories;
+    // lower-cased category name -> ascending product ids
+    private final Map<String, int[]> productIdsByCategoryName;
+    // lower-cased category name -> category
+    private final Map<String, Category> categoriesByName;
+    private final Map<Integer, Integer> productCountsByCategoryId;
+    private final CatalogFacetIndex facets;
+    // product id -> hash of every serialized field; carried over for rows a patch did not touch
+    private final Map<Integer, Long> fingerprints;
+    private final long contentHash;
+    private final long categoriesHash;
+    private final long estimatedBytes;
+
+    CatalogSnapshot(long version, List<Product> products, List<Category> categories, long buildStartedAt) {
+        this(version, products, categories, buildStartedAt, null);
+    }
+
+    private CatalogSnapshot(long version, List<Product> products, List<Category> categories, long buildStartedAt,
+                            CatalogSnapshot previous) {
+        this.version = version;
+
+        List<Product> byId = new ArrayList<>(products);
+        byId.sort(BY_ID);
+        this.products = Collections.unmodifiableList(byId);
+
+        // Rows without a price or creation time never appear in pages sorted on them
+        List<Product> byPrice = new ArrayList<>();
+        List<Product> byCreatedAt = new ArrayList<>();
+        Map<Integer, Product> index = new HashMap<>(byId.size() * 2);
+        Map<Integer, Long> hashes = new HashMap<>(byId.size() * 2);
+        long catalogHash = FNV_OFFSET;
+        long bytes = 0;
+        for (Product product : byId) {
+            index.put(product.getProductId(), product);
+            long fingerprint = previous != null && previous.getProduct(product.getProductId()) == product
+                    ? previous.fingerprints.get(product.getProductId())
+                    : fingerprint(product);
+            hashes.put(product.getProductId(), fingerprint);
+            catalogHash = hash(catalogHash, fingerprint);
+            if (product.getPrice() != null) {
+                byPrice.add(product);
+            }
+            if (product.getCreatedAt() != null) {
+                byCreatedAt.add(product);
+            }
+            bytes += estimateBytes(product);
+        }
+        byPrice.sort(BY_PRICE);
+        byCreatedAt.sort(BY_CREATED_AT);
+        this.productsByPrice = Collections.unmodifiableList(byPrice);
+        this.productsByCreatedAt = Collections.unmodifiableList(byCreatedAt);
+        this.productsById = Collections.unmodifiableMap(index);
+        this.fingerprints = Collections.unmodifiableMap(hashes);
+        this.contentHash = finish(catalogHash);
+
+        List<Category> sortedCategories = new ArrayList<>(categories);
+        sortedCategories.sort(Comparator.comparing(Category::getCategoryId));
+        this.categories = Collections.unmodifiableList(sortedCategories);
+        Map<String, Category> byName = new HashMap<>(sortedCategories.size() * 2);
+        for (Category category : sortedCategories) {
+            bytes += 64 + stringBytes(category.getCategoryName()) + stringBytes(category.getDescription());
+            if (category.getCategoryName() != null) {
+                byName.putIfAbsent(categoryKey(category.getCategoryName()), category);
+            }
+        }
+        this.categoriesByName = Collections.unmodifiableMap(byName);
+
+        Map<String, List<Product>> grouped = new HashMap<>();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Product product : byId) {
+            Category category = product.getCategory();
+            if (category == null || category.getCategoryName() == null) {
+                continue;
+            }
+            grouped.computeIfAbsent(categoryKey(category.getCategoryName()), key -> new ArrayList<>()).add(product);
+            counts.merge(category.getCategoryId(), 1, Integer::sum);
+        }
+        Map<String, int[]> categoryIndex = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((name, members) -> categoryIndex.put(name, members.stream().mapToInt(Product::getProductId).toArray()));
+        this.productIdsByCategoryName = Collections.unmodifiableMap(categoryIndex);
+        this.productCountsByCategoryId = Collections.unmodifiableMap(counts);
+        long categoryHash = FNV_OFFSET;
+        for (Category category : sortedCategories) {
+            categoryHash = hash(categoryHash, category.getCategoryId());
+            categoryHash = hash(categoryHash, category.getCategoryName());
+            categoryHash = hash(categoryHash, category.getDescription());
+            categoryHash = hash(categoryHash, counts.get(category.getCategoryId()));
+        }
+        this.categoriesHash = finish(categoryHash);
+        bytes += byId.size() * 4L + grouped.size() * 64L;
+
+        this.facets = new CatalogFacetIndex(byId);
+        bytes += facets.estimatedBytes();
+        // Three sorted lists and the id map hold one reference (plus map entry) per product
+        this.estimatedBytes = bytes + byId.size() * 112L;
+
+        this.builtAtMillis = System.currentTimeMillis();
+        this.buildMillis = builtAtMillis - buildStartedAt;
+    }
+
+    /**
+     * A new snapshot with the given products replaced by their reloaded rows; ids missing from
+     * reloaded were deleted. Categories are carried over unchanged.
+     */
+    CatalogSnapshot withProducts(long newVersion, Collection<Integer> changedIds, List<Product> reloaded, long buildStartedAt) {
+        Map<Integer, Product> merged = new HashMap<>(productsById);
+        for (Integer productId : changedIds) {
+            merged.remove(productId);
+        }
+        for (Product product : reloaded) {
+            merged.put(product.getProductId(), product);
+        }
+        return new CatalogSnapshot(newVersion, new ArrayList<>(merged.values()), categories, buildStartedAt, this);
+    }
+
+    public long getVersion() { return version; }
+    public long getBuiltAtMillis() { return builtAtMillis; }
+    public long getBuildMillis() { return buildMillis; }
+    public long getEstimatedBytes() { return estimatedBytes; }
+    public List<Product> getProducts() { return products; }
+    public List<Category> getCategories() { return categories; }
+
+    /**
+     * Category by case-insensitive name, or null.
+     */
+    public Category getCategory(String categoryName) {
+        return categoriesByName.get(categoryKey(categoryName));
+    }
+
+    public Product getProduct(Integer productId) {
+        return productId != null ? productsById.get(productId) : null;
+    }
+
+    /**
+     * Hash of everything a product serializes to, so it only changes when the product does.
+     * Rows not held by this snapshot (a stale page, a database fallback) are hashed on the spot.
+     */
+    public long fingerprintOf(Product product) {
+        Long known = getProduct(product.getProductId()) == product ? fingerprints.get(product.getProductId()) : null;
+        return known != null ? known : fingerprint(product);
+    }
+
+    /**
+     * Combined hash of every product fingerprint in id order.
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Hash of the category list together with its per-category product counts.
+     */
+    public long getCategoriesHash() {
+        return categoriesHash;
+    }
+
+    public CatalogFacetIndex getFacets() {
+        return facets;
+    }
+
+    public Map<Integer, Integer> getProductCountsByCategoryId() {
+        return productCountsByCategoryId;
+    }
+
+    public int countInCategory(String categoryName) {
+        int[] ids = productIdsByCategoryName.get(categoryKey(categoryName));
+        return ids != null ? ids.length : 0;
+    }
+
+    /**
+     * Up to size products of the named category with ids greater than afterId, in id order.
+     */
+    public List<Product> categoryPage(String categoryName, int afterId, int size) {
+        int[] ids = productIdsByCategoryName.get(categoryKey(categoryName));
+        if (ids == null) {
+            return List.of();
+        }
+        int index = Arrays.binarySearch(ids, afterId);
+        int from = index >= 0 ? index + 1 : -index - 1;
+
+        List<Product> page = new ArrayList<>(Math.min(size, ids.length - from));
+        for (int i = from; i < ids.length && page.size() < size; i++) {
+            page.add(productsById.get(ids[i]));
+        }
+        return page;
+    }
+
+    /**
+     * Products ordered by (sortKey, productId) ascending; sortKey is productId, price or createdAt.
+     */
+    public List<Product> sortedBy(String sortKey) {
+        switch (sortKey) {
+            case "price":
+                return productsByPrice;
+            case "createdAt":
+                return productsByCreatedAt;
+            default:
+                return products;
+        }
+    }
+
+    static Comparator<Product> comparatorFor(String sortKey) {
+        switch (sortKey) {
+            case "price":
+                return BY_PRICE;
+            case "createdAt":
+                return BY_CREATED_AT;
+            default:
+                return BY_ID;
+        }
+    }
+
+    static String categoryKey(String categoryName) {
+        return categoryName == null ? "" : categoryName.toLowerCase(Locale.ROOT);
+    }
+
+    private static long fingerprint(Product product) {
+        long h = FNV_OFFSET;
+        h = hash(h, product.getProductId());
+        h = hash(h, product.getName());
+        h = hash(h, product.getDescription());
+        h = hash(h, product.getPrice());
+        h = hash(h, product.getStock());
+        h = hash(h, product.getImageUrl());
+        Category category = product.getCategory();
+        h = hash(h, category != null ? category.getCategoryId() : null);
+        h = hash(h, category != null ? category.getCategoryName() : null);
+        h = hash(h, category != null ? category.getDescription() : null);
+        h = hash(h, product.getCreatedAt());
+        h = hash(h, product.getUpdatedAt());
+        return finish(h);
+    }
+
+    // FNV-1a over the value's string form, with a separator so adjacent fields cannot run together
+    static long hash(long h, Object value) {
+        if (value == null) {
+            return (h ^ 0xff) * FNV_PRIME;
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return (h ^ 0x1f) * FNV_PRIME;
+    }
+
+    static long hash(long h, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            h ^= (value >>> shift) & 0xff;
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    // Murmur3 finalizer so nearby inputs spread over all 64 bits
+    static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Rough shallow size of an entity with its strings and boxed fields
+    private static long estimateBytes(Product product) {
+        return 160 + stringBytes(product.getName()) + stringBytes(product.getDescription()) + stringBytes(product.getImageUrl());
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.model.Category;
+import com.example.sales_savy.model.Product;
+import com.example.sales_savy.repository.CategoryRepository;
+import com.example.sales_savy.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the current {@link CatalogSnapshot}. Catalog writes publish a {@link CatalogChangedEvent};
+ * after commit this service rebuilds the snapshot on its own thread and swaps it in atomically.
+ * Bursts of changes are coalesced into one rebuild per minimum interval. Changes scoped to
+ * specific products (stock after an order, a price edit) only reload those rows and patch
+ * them into a copy of the current snapshot; the full table is read again only for
+ * catalog-wide changes.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Value("${catalog.snapshot.min-rebuild-interval-ms:1000}")
+    private long minRebuildIntervalMillis;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean fullRebuildPending = new AtomicBoolean();
+    // Products changed since the last rebuild, for a patch when no full rebuild is pending
+    private final Set<Integer> pendingProductIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong lastRebuildStartedAt = new AtomicLong();
+
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder patches = new LongAdder();
+    private final LongAdder failedRebuilds = new LongAdder();
+    private final LongAdder changeEvents = new LongAdder();
+
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void loadInitialSnapshot() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Reads fall back to the database until the first successful rebuild
+            System.err.println("❌ Failed to build initial catalog snapshot: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * The latest snapshot, or null if none has been built yet.
+     */
+    public CatalogSnapshot getSnapshot() {
+        return current.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        changeEvents.increment();
+        if (event.getProductIds().isEmpty() || event.getChange() == CatalogChangedEvent.Change.CATEGORIES_UPDATED) {
+            requestRebuild();
+        } else {
+            pendingProductIds.addAll(event.getProductIds());
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Schedule a rebuild that reloads the whole catalog.
+     */
+    public void requestRebuild() {
+        fullRebuildPending.set(true);
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        dirty.set(true);
+        if (scheduled.compareAndSet(false, true)) {
+            long delay = Math.max(0, lastRebuildStartedAt.get() + minRebuildIntervalMillis - System.currentTimeMillis());
+            rebuildExecutor.schedule(this::runScheduledRebuild, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CatalogSnapshot snapshot = current.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("patches", patches.sum());
+        stats.put("pendingProducts", pendingProductIds.size());
+        stats.put("failedRebuilds", failedRebuilds.sum());
+        stats.put("changeEvents", changeEvents.sum());
+        stats.put("rebuildPending", dirty.get());
+        if (snapshot != null) {
+            stats.put("version", snapshot.getVersion());
+            stats.put("products", snapshot.getProducts().size());
+            stats.put("categories", snapshot.getCategories().size());
+            stats.put("ageMillis", System.currentTimeMillis() - snapshot.getBuiltAtMillis());
+            stats.put("buildMillis", snapshot.getBuildMillis());
+            stats.put("estimatedBytes", snapshot.getEstimatedBytes());
+        }
+        return stats;
+    }
+
+    private void runScheduledRebuild() {
+        dirty.set(false);
+        boolean full = fullRebuildPending.getAndSet(false) || current.get() == null;
+        List<Integer> productIds = new ArrayList<>(pendingProductIds);
+        pendingProductIds.removeAll(productIds);
+        try {
+            if (full) {
+                rebuild();
+            } else if (!productIds.isEmpty()) {
+                patch(productIds);
+            }
+        } catch (Exception e) {
+            failedRebuilds.increment();
+            if (full) {
+                fullRebuildPending.set(true);
+            } else {
+                pendingProductIds.addAll(productIds);
+            }
+            dirty.set(true);
+            System.err.println("❌ Catalog snapshot rebuild failed: " + e.getMessage());
+        } finally {
+            scheduled.set(false);
+            // Changes that arrived during the rebuild get a follow-up pass
+            if (dirty.get()) {
+                scheduleRebuild();
+            }
+        }
+    }
+
+    // Only this thread swaps snapshots, so the current one cannot change underneath the patch
+    private void patch(List<Integer> productIds) {
+        long start = System.currentTimeMillis();
+        lastRebuildStartedAt.set(start);
+
+        List<Product> reloaded = productRepository.findAllById(productIds);
+        CatalogSnapshot snapshot = current.get().withProducts(versions.incrementAndGet(), productIds, reloaded, start);
+        current.set(snapshot);
+        patches.increment();
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        lastRebuildStartedAt.set(start);
+
+        List<Product> products = productRepository.findAll();
+        List<Category> categories = categoryRepository.findAll();
+
+        CatalogSnapshot snapshot = new CatalogSnapshot(versions.incrementAndGet(), products, categories, start);
+        current.set(snapshot);
+        rebuilds.increment();
+        System.out.println("📚 Catalog snapshot v" + snapshot.getVersion() + " built: " + products.size()
+                + " products, " + categories.size() + " categories in " + snapshot.getBuildMillis() + "ms");
+    }
+}
@@ -6,6 +6,7 @@ import com.example.sales_savy.dto.OrderItemResponse;
 import com.example.sales_savy.model.*;
 import com.example.sales_savy.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +24,7 @@ public class CheckoutService {
     @Autowired private CartItemRepository cartItemRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private ProductRepository productRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     public OrderResponse processCheckout(Integer userId, CheckoutRequest checkoutRequest) {
         User user = userRepository.findById(userId)
@@ -87,6 +89,11 @@ public class CheckoutService {
             productRepository.save(product);
         }
 
+        // Listeners (catalog views, sales and recommendation counters) run once this transaction commits
+        eventPublisher.publishEvent(CatalogChangedEvent.forProducts(CatalogChangedEvent.Change.STOCK_UPDATED,
+                cartItems.stream().map(cartItem -> cartItem.getProduct().getProductId()).collect(Collectors.toList())));
+        eventPublisher.publishEvent(OrderPlacedEvent.fromCart(savedOrder.getOrderId(), userId, cartItems));
+
         // Set the order items to the order object
         savedOrder.setOrderItems(orderItems);
 
@@ -0,0 +1,243 @@
+package com.example.sales_savy.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * "Customers also bought": a sparse co-occurrence matrix over order lines. Each product has
+ * its own open-addressing int-to-int row of co-purchase counts plus a top-k array. Counts only
+ * ever grow, so the top-k can be maintained exactly on every increment and a lookup just
+ * copies it. The matrix is bootstrapped from order_items at startup and then updated from
+ * {@link OrderPlacedEvent}.
+ */
+@Service
+public class CoPurchaseRecommender {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${recommendations.top-k:10}")
+    private int topK;
+
+    @Value("${recommendations.max-lines-per-order:50}")
+    private int maxLinesPerOrder;
+
+    private final ConcurrentHashMap<Integer, CoPurchaseRow> rows = new ConcurrentHashMap<>();
+
+    private final LongAdder ordersApplied = new LongAdder();
+    private final LongAdder pairsCounted = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private volatile long bootstrapMillis;
+
+    @PostConstruct
+    void bootstrap() {
+        long start = System.currentTimeMillis();
+        try {
+            OrderAccumulator accumulator = new OrderAccumulator();
+            // Ordered by order so each order's lines arrive together; rows are streamed, not collected
+            jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement(
+                        "SELECT order_id, product_id FROM order_items ORDER BY order_id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // MySQL Connector/J streams row by row only with this fetch size
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }, accumulator);
+            accumulator.flush();
+            bootstrapMillis = System.currentTimeMillis() - start;
+            System.out.println("🛒 Co-purchase matrix bootstrapped: " + ordersApplied.sum() + " orders, "
+                    + rows.size() + " products in " + bootstrapMillis + "ms");
+        } catch (Exception e) {
+            System.err.println("❌ Failed to bootstrap co-purchase matrix: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        int[] productIds = new int[event.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = event.productIdAt(i);
+        }
+        applyOrder(productIds, productIds.length);
+    }
+
+    /**
+     * Up to limit product ids most often bought together with the given product, most frequent first.
+     */
+    public int[] relatedProductIds(int productId, Integer limit) {
+        lookups.increment();
+        int size = Math.max(1, Math.min(limit != null ? limit : topK, topK));
+        CoPurchaseRow row = rows.get(productId);
+        if (row == null) {
+            return new int[0];
+        }
+        int[] top = row.topIds;
+        return Arrays.copyOf(top, Math.min(size, top.length));
+    }
+
+    public Map<String, Object> getStats() {
+        long entries = 0;
+        for (CoPurchaseRow row : rows.values()) {
+            entries += row.size;
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("products", rows.size());
+        stats.put("pairEntries", entries);
+        stats.put("estimatedBytes", entries * 8 * 2 + rows.size() * (96L + topK * 8L));
+        stats.put("ordersApplied", ordersApplied.sum());
+        stats.put("pairsCounted", pairsCounted.sum());
+        stats.put("lookups", lookups.sum());
+        stats.put("bootstrapMillis", bootstrapMillis);
+        return stats;
+    }
+
+    private void applyOrder(int[] productIds, int length) {
+        // Very large orders would add O(n^2) pairs of little signal; only the first lines count
+        int[] distinct = Arrays.stream(productIds, 0, length).distinct().limit(maxLinesPerOrder).toArray();
+        if (distinct.length < 2) {
+            return;
+        }
+        for (int a : distinct) {
+            CoPurchaseRow row = rows.computeIfAbsent(a, id -> new CoPurchaseRow());
+            for (int b : distinct) {
+                if (a != b) {
+                    row.increment(b, topK);
+                }
+            }
+        }
+        ordersApplied.increment();
+        pairsCounted.add((long) distinct.length * (distinct.length - 1));
+    }
+
+    private final class OrderAccumulator implements RowCallbackHandler {
+        private String currentOrder;
+        private int[] lines = new int[16];
+        private int size;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String orderId = rs.getString(1);
+            if (!orderId.equals(currentOrder)) {
+                flush();
+                currentOrder = orderId;
+            }
+            if (size == lines.length) {
+                lines = Arrays.copyOf(lines, size * 2);
+            }
+            lines[size++] = rs.getInt(2);
+        }
+
+        void flush() {
+            if (size > 0) {
+                applyOrder(lines, size);
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * Co-purchase counts for one product: linear-probing int keys and counts, plus the exact
+     * top-k by count. Writers synchronize on the row; readers only read the published top array.
+     */
+    static final class CoPurchaseRow {
+        private static final int EMPTY = 0;
+
+        private int[] keys = new int[8];
+        private int[] counts = new int[8];
+        private int size;
+        private int[] topCounts = new int[0];
+        volatile int[] topIds = new int[0];
+
+        synchronized void increment(int productId, int k) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize();
+            }
+            int slot = slotFor(keys, productId);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = productId;
+                size++;
+            }
+            int count = ++counts[slot];
+            updateTop(productId, count, k);
+        }
+
+        // Product ids start at 1, so 0 marks an empty slot
+        private static int slotFor(int[] table, int productId) {
+            int mask = table.length - 1;
+            int hash = productId * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (table[slot] != EMPTY && table[slot] != productId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new int[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slotFor(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        // Counts only grow: a product enters the top-k by passing its minimum, or moves up within it
+        private void updateTop(int productId, int count, int k) {
+            int[] ids = topIds;
+            int position = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == productId) {
+                    position = i;
+                    break;
+                }
+            }
+
+            int[] nextIds;
+            int[] nextCounts;
+            if (position >= 0) {
+                nextIds = ids.clone();
+                nextCounts = topCounts.clone();
+            } else if (ids.length < k) {
+                nextIds = Arrays.copyOf(ids, ids.length + 1);
+                nextCounts = Arrays.copyOf(topCounts, ids.length + 1);
+                position = ids.length;
+            } else if (count > topCounts[k - 1]) {
+                nextIds = ids.clone();
+                nextCounts = topCounts.clone();
+                position = k - 1;
+            } else {
+                return;
+            }
+
+            while (position > 0 && nextCounts[position - 1] < count) {
+                nextIds[position] = nextIds[position - 1];
+                nextCounts[position] = nextCounts[position - 1];
+                position--;
+            }
+            nextIds[position] = productId;
+            nextCounts[position] = count;
+            topCounts = nextCounts;
+            topIds = nextIds;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.sales_savy.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retention job for jwt_tokens and verification_tokens. Expired rows are deleted in
+ * small chunks along the expires_at index with a pause in between, so a run never
+ * holds locks on a large range of either table.
+ */
+@Service
+public class ExpiredTokenPurgeService {
+
+    private static final String[] TABLES = {"jwt_tokens", "verification_tokens"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${token-purge.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${token-purge.pause-ms:200}")
+    private long pauseMillis;
+
+    @Value("${token-purge.max-chunks-per-run:500}")
+    private int maxChunksPerRun;
+
+    private final Map<String, Map<String, Object>> lastRuns = new ConcurrentHashMap<>();
+
+    @Scheduled(initialDelayString = "${token-purge.initial-delay-ms:60000}",
+               fixedDelayString = "${token-purge.interval-ms:3600000}")
+    public void purgeExpiredTokens() {
+        for (String table : TABLES) {
+            try {
+                purgeTable(table);
+            } catch (InterruptedException e) {
+                // Shutting down; leave the rest for the next run
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("❌ Token purge failed for " + table + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(lastRuns);
+        stats.put("chunkSize", chunkSize);
+        stats.put("pauseMillis", pauseMillis);
+        return stats;
+    }
+
+    private void purgeTable(String table) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now());
+
+        // Lag: how long the oldest expired row has been waiting to be purged
+        Timestamp oldestExpired = jdbcTemplate.queryForObject(
+                "SELECT MIN(expires_at) FROM " + table + " WHERE expires_at < ?", Timestamp.class, cutoff);
+        long lagSeconds = oldestExpired == null ? 0
+                : Duration.between(oldestExpired.toLocalDateTime(), cutoff.toLocalDateTime()).getSeconds();
+
+        long purged = 0;
+        int chunks = 0;
+        while (chunks < maxChunksPerRun) {
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM " + table + " WHERE expires_at < ? ORDER BY expires_at LIMIT ?", cutoff, chunkSize);
+            purged += deleted;
+            chunks++;
+            if (deleted < chunkSize) {
+                break;
+            }
+            Thread.sleep(pauseMillis);
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        Map<String, Object> run = new HashMap<>();
+        run.put("rowsPurged", purged);
+        run.put("chunks", chunks);
+        run.put("durationMillis", duration);
+        run.put("lagSeconds", lagSeconds);
+        run.put("completedAt", LocalDateTime.now().toString());
+        lastRuns.put(table, run);
+
+        if (purged > 0) {
+            System.out.println("🧹 Purged " + purged + " expired rows from " + table + " in " + duration + "ms (lag " + lagSeconds + "s)");
+        }
+    }
+}
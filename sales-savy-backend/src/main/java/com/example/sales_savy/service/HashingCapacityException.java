@@ -0,0 +1,19 @@
+package com.example.sales_savy.service;
+
+/**
+ * Thrown when the password hashing pool cannot accept more work; callers should answer 503.
+ */
+public class HashingCapacityException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int retryAfterSeconds;
+
+    public HashingCapacityException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
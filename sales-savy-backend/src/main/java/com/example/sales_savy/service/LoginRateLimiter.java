@@ -0,0 +1,197 @@
+package com.example.sales_savy.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process sliding-window limiter for the auth endpoints, keyed separately by normalized
+ * username and by client IP. Every attempt counts against the IP; only failures count
+ * against the username, so nobody can lock an account by logging in as it repeatedly.
+ * Each key is a single lock-free counter; the number of tracked keys is bounded and idle
+ * keys are evicted first.
+ */
+@Service
+public class LoginRateLimiter {
+
+    @Value("${auth.rate-limit.window-ms:300000}")
+    private long windowMillis;
+
+    @Value("${auth.rate-limit.username-limit:10}")
+    private int usernameLimit;
+
+    @Value("${auth.rate-limit.ip-limit:50}")
+    private int ipLimit;
+
+    @Value("${auth.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private final ConcurrentHashMap<String, SlidingWindow> usernameWindows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SlidingWindow> ipWindows = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByUsername = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Record an attempt from the given IP and check the identity's failure budget.
+     *
+     * @return 0 if the attempt is allowed, otherwise the number of seconds to wait
+     */
+    public long tryAcquire(String identity, String clientIp) {
+        long now = System.currentTimeMillis();
+
+        if (clientIp != null && !acquire(ipWindows, clientIp, ipLimit, now)) {
+            rejectedByIp.increment();
+            System.out.println("⚠️ Auth rate limit hit for IP: " + clientIp);
+            return retryAfterSeconds(now);
+        }
+
+        String key = normalize(identity);
+        SlidingWindow window = key != null ? usernameWindows.get(key) : null;
+        if (window != null && window.isLimited(now, windowMillis, usernameLimit)) {
+            rejectedByUsername.increment();
+            System.out.println("⚠️ Auth rate limit hit for account: " + key);
+            return retryAfterSeconds(now);
+        }
+
+        allowed.increment();
+        return 0;
+    }
+
+    /**
+     * Count a failed attempt against the identity's budget.
+     */
+    public void recordFailure(String identity) {
+        String key = normalize(identity);
+        if (key != null) {
+            long now = System.currentTimeMillis();
+            window(usernameWindows, key, now).record(now, windowMillis);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("rejectedByUsername", rejectedByUsername.sum());
+        stats.put("rejectedByIp", rejectedByIp.sum());
+        stats.put("trackedUsernames", usernameWindows.size());
+        stats.put("trackedIps", ipWindows.size());
+        stats.put("evictions", evictions.sum());
+        stats.put("windowMillis", windowMillis);
+        stats.put("usernameLimit", usernameLimit);
+        stats.put("ipLimit", ipLimit);
+        return stats;
+    }
+
+    static String normalize(String identity) {
+        if (identity == null) {
+            return null;
+        }
+        String trimmed = identity.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private boolean acquire(ConcurrentHashMap<String, SlidingWindow> windows, String key, int limit, long now) {
+        return window(windows, key, now).tryAcquire(now, windowMillis, limit);
+    }
+
+    private SlidingWindow window(ConcurrentHashMap<String, SlidingWindow> windows, String key, long now) {
+        SlidingWindow window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxKeys) {
+                evict(windows, now);
+            }
+            window = windows.computeIfAbsent(key, k -> new SlidingWindow());
+        }
+        return window;
+    }
+
+    // Keys idle for two full windows carry no weight any more; drop those first, then shed in hash order
+    private void evict(ConcurrentHashMap<String, SlidingWindow> windows, long now) {
+        int before = windows.size();
+        long currentWindow = now / windowMillis;
+        windows.values().removeIf(window -> window.isIdle(currentWindow));
+
+        int target = (int) (maxKeys * 0.9);
+        Iterator<String> keys = windows.keySet().iterator();
+        while (windows.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        evictions.add(Math.max(0, before - windows.size()));
+    }
+
+    private long retryAfterSeconds(long now) {
+        long remaining = windowMillis - (now % windowMillis);
+        return Math.max(1, (remaining + 999) / 1000);
+    }
+
+    /**
+     * Sliding-window counter packed into one long: window index (32 bits),
+     * previous window count (16 bits) and current window count (16 bits).
+     * The estimate weights the previous window by how much of it still overlaps.
+     */
+    static final class SlidingWindow {
+        private static final long COUNT_MASK = 0xFFFFL;
+
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryAcquire(long now, long windowMillis, int limit) {
+            return update(now, windowMillis, limit);
+        }
+
+        void record(long now, long windowMillis) {
+            update(now, windowMillis, Integer.MAX_VALUE);
+        }
+
+        boolean isLimited(long now, long windowMillis, int limit) {
+            long windowIndex = (now / windowMillis) & 0xFFFFFFFFL;
+            long rolled = roll(state.get(), windowIndex);
+            return estimate(rolled, now, windowMillis) >= limit;
+        }
+
+        private boolean update(long now, long windowMillis, int limit) {
+            long windowIndex = (now / windowMillis) & 0xFFFFFFFFL;
+            while (true) {
+                long current = state.get();
+                long rolled = roll(current, windowIndex);
+                if (estimate(rolled, now, windowMillis) >= limit) {
+                    return false;
+                }
+
+                long next = (rolled & ~COUNT_MASK) | Math.min(COUNT_MASK, (rolled & COUNT_MASK) + 1);
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        // Re-express the packed state relative to windowIndex
+        private static long roll(long current, long windowIndex) {
+            long storedIndex = current >>> 32;
+            if (storedIndex == windowIndex) {
+                return current;
+            }
+            long previousCount = storedIndex == windowIndex - 1 ? current & COUNT_MASK : 0;
+            return (windowIndex << 32) | (previousCount << 16);
+        }
+
+        private static double estimate(long state, long now, long windowMillis) {
+            double overlap = 1.0 - (double) (now % windowMillis) / windowMillis;
+            return ((state >>> 16) & COUNT_MASK) * overlap + (state & COUNT_MASK);
+        }
+
+        boolean isIdle(long currentWindow) {
+            return (state.get() >>> 32) < (currentWindow & 0xFFFFFFFFL) - 1;
+        }
+    }
+}
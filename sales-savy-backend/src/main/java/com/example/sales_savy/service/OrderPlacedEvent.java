@@ -0,0 +1,42 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.model.CartItem;
+
+import java.util.List;
+
+/**
+ * Published when an order is created; listeners see it only after the order's transaction
+ * commits. Product ids and quantities are parallel arrays, one entry per order line.
+ */
+public class OrderPlacedEvent {
+    private final String orderId;
+    private final Integer userId;
+    private final long placedAtMillis;
+    private final int[] productIds;
+    private final int[] quantities;
+
+    public OrderPlacedEvent(String orderId, Integer userId, long placedAtMillis, int[] productIds, int[] quantities) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.placedAtMillis = placedAtMillis;
+        this.productIds = productIds;
+        this.quantities = quantities;
+    }
+
+    public static OrderPlacedEvent fromCart(String orderId, Integer userId, List<CartItem> cartItems) {
+        int[] productIds = new int[cartItems.size()];
+        int[] quantities = new int[cartItems.size()];
+        for (int i = 0; i < cartItems.size(); i++) {
+            productIds[i] = cartItems.get(i).getProduct().getProductId();
+            quantities[i] = cartItems.get(i).getQuantity();
+        }
+        return new OrderPlacedEvent(orderId, userId, System.currentTimeMillis(), productIds, quantities);
+    }
+
+    public String getOrderId() { return orderId; }
+    public Integer getUserId() { return userId; }
+    public long getPlacedAtMillis() { return placedAtMillis; }
+    public int size() { return productIds.length; }
+    public int productIdAt(int index) { return productIds[index]; }
+    public int quantityAt(int index) { return quantities[index]; }
+}
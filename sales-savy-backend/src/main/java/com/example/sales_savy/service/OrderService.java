@@ -3,6 +3,7 @@ package com.example.sales_savy.service;
 import com.example.sales_savy.model.*;
 import com.example.sales_savy.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
@@ -18,6 +19,9 @@ public class OrderService {
     @Autowired private CartItemRepository cartItemRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private ProductRepository productRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private ProductSalesTracker productSalesTracker;
+    @Autowired private ProductViewCounter productViewCounter;
 
     public Order createOrder(Integer userId, String shippingAddress, PaymentMethod paymentMethod) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
@@ -64,6 +68,11 @@ public class OrderService {
             productRepository.save(product);
         }
 
+        // Listeners (catalog views, sales and recommendation counters) run once this transaction commits
+        eventPublisher.publishEvent(CatalogChangedEvent.forProducts(CatalogChangedEvent.Change.STOCK_UPDATED,
+                cartItems.stream().map(cartItem -> cartItem.getProduct().getProductId()).collect(Collectors.toList())));
+        eventPublisher.publishEvent(OrderPlacedEvent.fromCart(savedOrder.getOrderId(), userId, cartItems));
+
         cartItemRepository.deleteByUser(user);
         return savedOrder;
     }
@@ -121,14 +130,16 @@ public class OrderService {
     }
 
     public List<Map<String, Object>> getPopularProducts(int limit) {
+        return getPopularProducts(ProductSalesTracker.Window.ALL_TIME, limit);
+    }
+
+    public List<Map<String, Object>> getPopularProducts(ProductSalesTracker.Window window, int limit) {
         try {
-            List<Object[]> popularProducts = orderItemRepository.findPopularProducts();
-            return popularProducts.stream().limit(limit).map(result -> {
-                Map<String, Object> productStats = new HashMap<>();
-                productStats.put("productId", result[0]);
-                productStats.put("totalSold", result[1]);
-                return productStats;
-            }).collect(Collectors.toList());
+            List<Map<String, Object>> popular = productSalesTracker.topSellers(window, limit);
+            for (Map<String, Object> entry : popular) {
+                entry.put("views", productViewCounter.viewCount((Integer) entry.get("productId")));
+            }
+            return popular;
         } catch (Exception e) {
             return new ArrayList<>();
         }
@@ -0,0 +1,215 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.dto.BulkProductUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies many stock and price changes with batched UPDATE statements, one transaction
+ * per chunk, instead of loading and saving each entity. The stock guard lives in the
+ * WHERE clause, so a delta that would take stock below zero matches no row and is reported
+ * without a read-modify-write race.
+ */
+@Service
+public class ProductBulkUpdateService {
+
+    // Parameters: absoluteStock, stockDelta, price, updatedAt, productId, absoluteStock, stockDelta
+    private static final String UPDATE_SQL =
+            "UPDATE products SET stock = COALESCE(?, stock + COALESCE(?, 0)), price = COALESCE(?, price), updated_at = ? "
+            + "WHERE product_id = ? AND COALESCE(?, stock + COALESCE(?, 0)) >= 0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.bulk-update.max-rows:10000}")
+    private int maxRows;
+
+    @Value("${catalog.bulk-update.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Apply the updates in order and report an outcome per row: UPDATED, NOT_FOUND,
+     * INSUFFICIENT_STOCK, INVALID or FAILED.
+     */
+    public Map<String, Object> applyUpdates(List<BulkProductUpdate> updates) {
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("No updates given");
+        }
+        if (updates.size() > maxRows) {
+            throw new IllegalArgumentException("At most " + maxRows + " updates per request");
+        }
+
+        long start = System.currentTimeMillis();
+        List<Map<String, Object>> results = new ArrayList<>(updates.size());
+        List<BulkProductUpdate> valid = new ArrayList<>();
+        List<Map<String, Object>> validResults = new ArrayList<>();
+        for (BulkProductUpdate update : updates) {
+            String error = validate(update);
+            Map<String, Object> result = result(update.getProductId(), error != null ? "INVALID" : null, error);
+            results.add(result);
+            if (error == null) {
+                valid.add(update);
+                validResults.add(result);
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, valid.size());
+            applyChunk(valid.subList(from, to), validResults.subList(from, to));
+        }
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        List<Integer> stockChanged = new ArrayList<>();
+        List<Integer> priceChanged = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            String status = (String) results.get(i).get("status");
+            counts.merge(status, 1, Integer::sum);
+            BulkProductUpdate update = updates.get(i);
+            if ("UPDATED".equals(status)) {
+                if (update.getStockDelta() != null || update.getAbsoluteStock() != null) {
+                    stockChanged.add(update.getProductId());
+                }
+                if (update.getPrice() != null) {
+                    priceChanged.add(update.getProductId());
+                }
+            }
+        }
+        if (!stockChanged.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.forProducts(CatalogChangedEvent.Change.STOCK_UPDATED, stockChanged));
+        }
+        if (!priceChanged.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.forProducts(CatalogChangedEvent.Change.PRICES_UPDATED, priceChanged));
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        System.out.println("🏷️ Bulk product update: " + counts + " in " + duration + "ms");
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("total", updates.size());
+        report.put("counts", counts);
+        report.put("durationMillis", duration);
+        report.put("results", results);
+        return report;
+    }
+
+    private void applyChunk(List<BulkProductUpdate> chunk, List<Map<String, Object>> chunkResults) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts;
+        try {
+            counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    BulkProductUpdate update = chunk.get(i);
+                    setNullableInt(ps, 1, update.getAbsoluteStock());
+                    setNullableInt(ps, 2, update.getStockDelta());
+                    ps.setBigDecimal(3, update.getPrice());
+                    ps.setTimestamp(4, now);
+                    ps.setInt(5, update.getProductId());
+                    setNullableInt(ps, 6, update.getAbsoluteStock());
+                    setNullableInt(ps, 7, update.getStockDelta());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return chunk.size();
+                }
+            }));
+        } catch (Exception e) {
+            System.err.println("❌ Bulk update chunk failed: " + e.getMessage());
+            for (Map<String, Object> result : chunkResults) {
+                result.put("status", "FAILED");
+                result.put("error", "Chunk rolled back: " + e.getMessage());
+            }
+            return;
+        }
+
+        // Rows that matched nothing either do not exist or would have gone below zero
+        List<Integer> unmatched = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (counts[i] == 0) {
+                unmatched.add(chunk.get(i).getProductId());
+            } else {
+                chunkResults.get(i).put("status", "UPDATED");
+            }
+        }
+        if (unmatched.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT product_id FROM products WHERE product_id IN (:ids)",
+                new MapSqlParameterSource("ids", unmatched), Integer.class));
+        for (int i = 0; i < chunk.size(); i++) {
+            if (counts[i] == 0) {
+                boolean found = existing.contains(chunk.get(i).getProductId());
+                chunkResults.get(i).put("status", found ? "INSUFFICIENT_STOCK" : "NOT_FOUND");
+            }
+        }
+    }
+
+    private static String validate(BulkProductUpdate update) {
+        if (update.getProductId() == null) {
+            return "productId is required";
+        }
+        if (update.getStockDelta() != null && update.getAbsoluteStock() != null) {
+            return "Set either stockDelta or absoluteStock, not both";
+        }
+        if (update.getStockDelta() == null && update.getAbsoluteStock() == null && update.getPrice() == null) {
+            return "Nothing to update";
+        }
+        if (update.getAbsoluteStock() != null && update.getAbsoluteStock() < 0) {
+            return "absoluteStock must not be negative";
+        }
+        if (update.getPrice() != null && update.getPrice().signum() < 0) {
+            return "price must not be negative";
+        }
+        return null;
+    }
+
+    private static Map<String, Object> result(Integer productId, String status, String error) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("productId", productId);
+        result.put("status", status);
+        if (error != null) {
+            result.put("error", error);
+        }
+        return result;
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
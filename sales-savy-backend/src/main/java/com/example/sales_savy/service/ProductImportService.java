@@ -0,0 +1,435 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.model.Category;
+import com.example.sales_savy.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming bulk import of products from CSV or NDJSON. The body is read one line at a
+ * time, each row is validated and its category resolved from a map loaded once per import,
+ * and valid rows are written with JDBC batch inserts, one transaction per chunk; a chunk
+ * that fails is retried row by row so only the bad rows are rejected. Progress of the
+ * running import and a bounded list of per-row errors can be polled by job id, which the
+ * client may choose up front so it can poll while its upload is still streaming.
+ */
+@Service
+public class ProductImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, stock, image_url, category_category_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_RETAINED_JOBS = 20;
+    private static final Pattern JOB_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${catalog.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${catalog.import.max-errors:1000}")
+    private int maxErrors;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ConcurrentHashMap<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Import every row of the body. Only one import runs at a time.
+     *
+     * @param format "csv" (header row required) or "ndjson"
+     * @param jobId  id to register the job under before reading starts, or null to generate one
+     * @return the finished job's report
+     */
+    public Map<String, Object> importProducts(InputStream body, String format, String jobId) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+        if (jobId != null && !JOB_ID.matcher(jobId).matches()) {
+            throw new IllegalArgumentException("jobId must be 1-64 letters, digits, '-' or '_'");
+        }
+        if (jobId != null && jobs.containsKey(jobId)) {
+            throw new IllegalStateException("Import job " + jobId + " already exists");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Another product import is already running");
+        }
+
+        ImportJob job = new ImportJob(jobId != null ? jobId : UUID.randomUUID().toString(), csv ? "csv" : "ndjson");
+        retain(job);
+        try {
+            System.out.println("📥 Product import " + job.id + " started (" + job.format + ")");
+            Map<String, Integer> categoryIds = loadCategoryIds();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            if (csv) {
+                readCsv(reader, categoryIds, job);
+            } else {
+                readNdjson(reader, categoryIds, job);
+            }
+            job.finish("COMPLETED");
+        } catch (RuntimeException | IOException e) {
+            job.finish("FAILED");
+            job.addError(job.rowsRead.get(), "Import aborted: " + e.getMessage(), maxErrors);
+            throw e;
+        } finally {
+            running.set(false);
+            if (job.inserted.get() > 0) {
+                eventPublisher.publishEvent(CatalogChangedEvent.forCatalog(CatalogChangedEvent.Change.PRODUCTS_ADDED));
+            }
+            System.out.println("📥 Product import " + job.id + " " + job.status + ": " + job.inserted.get()
+                    + " inserted, " + job.failed.get() + " rejected in " + job.durationMillis() + "ms");
+        }
+        return job.toMap();
+    }
+
+    public Map<String, Object> getJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job != null ? job.toMap() : null;
+    }
+
+    private void readCsv(BufferedReader reader, Map<String, Integer> categoryIds, ImportJob job) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        List<String> header = new ArrayList<>();
+        for (String column : parseCsvLine(headerLine)) {
+            header.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        if (!header.contains("name") || !header.contains("price")) {
+            throw new IllegalArgumentException("CSV header must include name and price columns");
+        }
+
+        List<Object[]> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            job.rowsRead.incrementAndGet();
+            List<String> values = parseCsvLine(line);
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            accept(fields, rowNumber, categoryIds, chunk, job);
+        }
+        writeChunk(chunk, job);
+    }
+
+    private void readNdjson(BufferedReader reader, Map<String, Integer> categoryIds, ImportJob job) throws IOException {
+        List<Object[]> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            job.rowsRead.incrementAndGet();
+            Map<String, String> fields = new HashMap<>();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+                while (entries.hasNext()) {
+                    Map.Entry<String, JsonNode> entry = entries.next();
+                    if (!entry.getValue().isNull()) {
+                        fields.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue().asText());
+                    }
+                }
+            } catch (IOException e) {
+                job.reject(rowNumber, "Malformed JSON", maxErrors);
+                continue;
+            }
+            accept(fields, rowNumber, categoryIds, chunk, job);
+        }
+        writeChunk(chunk, job);
+    }
+
+    private void accept(Map<String, String> fields, long rowNumber, Map<String, Integer> categoryIds,
+                        List<Object[]> chunk, ImportJob job) {
+        Object[] row;
+        try {
+            row = toRow(fields, rowNumber, categoryIds);
+        } catch (IllegalArgumentException e) {
+            job.reject(rowNumber, e.getMessage(), maxErrors);
+            return;
+        }
+
+        chunk.add(row);
+        if (chunk.size() >= chunkSize) {
+            writeChunk(chunk, job);
+        }
+    }
+
+    // Column values in INSERT_SQL order, followed by the source row number for error reporting
+    private Object[] toRow(Map<String, String> fields, long rowNumber, Map<String, Integer> categoryIds) {
+        String name = trimToNull(fields.get("name"));
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+
+        BigDecimal price;
+        try {
+            price = new BigDecimal(fields.getOrDefault("price", "").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number");
+        }
+        if (price.signum() < 0) {
+            throw new IllegalArgumentException("price must not be negative");
+        }
+
+        int stock = 0;
+        String stockValue = trimToNull(fields.get("stock"));
+        if (stockValue != null) {
+            try {
+                stock = Integer.parseInt(stockValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("stock is not an integer");
+            }
+            if (stock < 0) {
+                throw new IllegalArgumentException("stock must not be negative");
+            }
+        }
+
+        Integer categoryId = null;
+        String categoryIdValue = trimToNull(fields.get("categoryid"));
+        String categoryName = trimToNull(fields.get("category"));
+        if (categoryIdValue != null) {
+            try {
+                categoryId = Integer.valueOf(categoryIdValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("categoryId is not an integer");
+            }
+            if (!categoryIds.containsValue(categoryId)) {
+                throw new IllegalArgumentException("Unknown categoryId: " + categoryId);
+            }
+        } else if (categoryName != null) {
+            categoryId = categoryIds.get(categoryName.toLowerCase(Locale.ROOT));
+            if (categoryId == null) {
+                throw new IllegalArgumentException("Unknown category: " + categoryName);
+            }
+        }
+
+        String imageUrl = trimToNull(fields.containsKey("imageurl") ? fields.get("imageurl") : fields.get("image_url"));
+        return new Object[] {name, trimToNull(fields.get("description")), price, stock, imageUrl, categoryId, rowNumber};
+    }
+
+    private void writeChunk(List<Object[]> chunk, ImportJob job) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, chunk, batchSize, (ps, row) -> bind(ps, row, now)));
+            job.inserted.addAndGet(chunk.size());
+            job.chunksCommitted.incrementAndGet();
+        } catch (Exception e) {
+            // The chunk rolled back as a whole; retry its rows one at a time to find the bad ones
+            System.err.println("❌ Product import chunk failed, retrying " + chunk.size() + " rows individually: " + e.getMessage());
+            for (Object[] row : chunk) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row, now));
+                    job.inserted.incrementAndGet();
+                } catch (Exception rowFailure) {
+                    job.reject((Long) row[6], rootMessage(rowFailure), maxErrors);
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private static void bind(PreparedStatement ps, Object[] row, Timestamp now) throws SQLException {
+        ps.setString(1, (String) row[0]);
+        ps.setString(2, (String) row[1]);
+        ps.setBigDecimal(3, (BigDecimal) row[2]);
+        ps.setInt(4, (Integer) row[3]);
+        ps.setString(5, (String) row[4]);
+        if (row[5] != null) {
+            ps.setInt(6, (Integer) row[5]);
+        } else {
+            ps.setNull(6, Types.INTEGER);
+        }
+        ps.setTimestamp(7, now);
+        ps.setTimestamp(8, now);
+    }
+
+    private static String rootMessage(Exception e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private Map<String, Integer> loadCategoryIds() {
+        Map<String, Integer> categoryIds = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            if (category.getCategoryName() != null) {
+                categoryIds.putIfAbsent(category.getCategoryName().toLowerCase(Locale.ROOT), category.getCategoryId());
+            }
+        }
+        return categoryIds;
+    }
+
+    private void retain(ImportJob job) {
+        jobs.put(job.id, job);
+        if (jobs.size() > MAX_RETAINED_JOBS) {
+            jobs.values().stream()
+                    .filter(existing -> existing.finishedAtMillis > 0)
+                    .min(Comparator.comparingLong(existing -> existing.startedAtMillis))
+                    .ifPresent(oldest -> jobs.remove(oldest.id));
+        }
+    }
+
+    /**
+     * Split one CSV record; double quotes enclose fields and "" escapes a quote. Quoted
+     * fields may not span lines, which keeps the reader strictly line-at-a-time.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static final class ImportJob {
+        private final String id;
+        private final String format;
+        private final long startedAtMillis = System.currentTimeMillis();
+        private volatile long finishedAtMillis;
+        private volatile String status = "RUNNING";
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong chunksCommitted = new AtomicLong();
+        private final List<Map<String, Object>> errors = Collections.synchronizedList(new ArrayList<>());
+
+        ImportJob(String id, String format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        void reject(long rowNumber, String message, int maxErrors) {
+            failed.incrementAndGet();
+            addError(rowNumber, message, maxErrors);
+        }
+
+        void addError(long rowNumber, String message, int maxErrors) {
+            if (errors.size() < maxErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("row", rowNumber);
+                error.put("error", message);
+                errors.add(error);
+            }
+        }
+
+        void finish(String finalStatus) {
+            status = finalStatus;
+            finishedAtMillis = System.currentTimeMillis();
+        }
+
+        long durationMillis() {
+            return (finishedAtMillis > 0 ? finishedAtMillis : System.currentTimeMillis()) - startedAtMillis;
+        }
+
+        Map<String, Object> toMap() {
+            long duration = durationMillis();
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("jobId", id);
+            report.put("format", format);
+            report.put("status", status);
+            report.put("rowsRead", rowsRead.get());
+            report.put("inserted", inserted.get());
+            report.put("rejected", failed.get());
+            report.put("chunksCommitted", chunksCommitted.get());
+            report.put("durationMillis", duration);
+            report.put("rowsPerSecond", duration == 0 ? 0 : rowsRead.get() * 1000 / duration);
+            synchronized (errors) {
+                report.put("errors", new ArrayList<>(errors));
+            }
+            return report;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.repository.OrderItemRepository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Units sold per product, kept in memory and bumped on every committed order instead of
+ * grouping all of order_items per request. All-time totals sit alongside a ring of hourly
+ * buckets covering the last seven days for the 24h and 7d views. Top-N lists come from a
+ * bounded heap and are cached until the next sale. A scheduled reconciliation reloads
+ * everything from the database; orders committed while it runs may be off by their own
+ * quantity until the following pass.
+ */
+@Service
+public class ProductSalesTracker {
+
+    public enum Window {
+        ALL_TIME(0),
+        LAST_24_HOURS(24),
+        LAST_7_DAYS(168);
+
+        private final int hours;
+
+        Window(int hours) {
+            this.hours = hours;
+        }
+
+        public static Window parse(String value) {
+            if (value == null || value.isBlank() || "all".equalsIgnoreCase(value)) {
+                return ALL_TIME;
+            }
+            if ("24h".equalsIgnoreCase(value)) {
+                return LAST_24_HOURS;
+            }
+            if ("7d".equalsIgnoreCase(value)) {
+                return LAST_7_DAYS;
+            }
+            throw new IllegalArgumentException("Unknown window: " + value + " (use all, 24h or 7d)");
+        }
+    }
+
+    private static final int RING_HOURS = 168;
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${sales-tracker.max-top-n:100}")
+    private int maxTopN;
+
+    private volatile ConcurrentHashMap<Integer, LongAdder> totals = new ConcurrentHashMap<>();
+    private volatile HourBucket[] ring = new HourBucket[RING_HOURS];
+
+    // Cached top lists per window; cleared whenever a sale is recorded
+    private final Map<Window, AtomicReference<CachedTop>> topCache = new ConcurrentHashMap<>();
+
+    private final LongAdder ordersRecorded = new LongAdder();
+    private final LongAdder topRecomputes = new LongAdder();
+    private final LongAdder reconciliations = new LongAdder();
+    private volatile long lastReconcileMillis;
+    private volatile long lastDriftUnits;
+
+    @PostConstruct
+    void bootstrap() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            System.err.println("❌ Failed to load product sales counters: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        HourBucket bucket = bucketFor(event.getPlacedAtMillis() / HOUR_MILLIS);
+        ConcurrentHashMap<Integer, LongAdder> currentTotals = totals;
+        for (int i = 0; i < event.size(); i++) {
+            int productId = event.productIdAt(i);
+            int quantity = event.quantityAt(i);
+            currentTotals.computeIfAbsent(productId, id -> new LongAdder()).add(quantity);
+            bucket.counts.computeIfAbsent(productId, id -> new LongAdder()).add(quantity);
+        }
+        ordersRecorded.increment();
+        topCache.clear();
+    }
+
+    /**
+     * Best sellers in the window as (productId, totalSold) maps, highest first.
+     */
+    public List<Map<String, Object>> topSellers(Window window, int limit) {
+        int size = Math.max(1, Math.min(limit, maxTopN));
+        AtomicReference<CachedTop> cached = topCache.computeIfAbsent(window, w -> new AtomicReference<>());
+        CachedTop top = cached.get();
+        long currentHour = System.currentTimeMillis() / HOUR_MILLIS;
+        // Windowed lists also go stale when the hour rolls over
+        if (top == null || top.size < size || (window != Window.ALL_TIME && top.hour != currentHour)) {
+            top = computeTop(window, Math.max(size, Math.min(maxTopN, 20)), currentHour);
+            cached.set(top);
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(Math.min(size, top.productIds.length));
+        for (int i = 0; i < top.productIds.length && i < size; i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("productId", top.productIds[i]);
+            entry.put("totalSold", top.units[i]);
+            result.add(entry);
+        }
+        return result;
+    }
+
+    public long unitsSold(int productId) {
+        LongAdder adder = totals.get(productId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Reload all-time totals and the hourly ring from the database and swap them in.
+     */
+    @Scheduled(initialDelayString = "${sales-tracker.reconcile-interval-ms:900000}",
+               fixedDelayString = "${sales-tracker.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+
+        ConcurrentHashMap<Integer, LongAdder> reloaded = new ConcurrentHashMap<>();
+        for (Object[] row : orderItemRepository.findPopularProducts()) {
+            LongAdder adder = new LongAdder();
+            adder.add(((Number) row[1]).longValue());
+            reloaded.put((Integer) row[0], adder);
+        }
+
+        HourBucket[] reloadedRing = new HourBucket[RING_HOURS];
+        long currentHour = start / HOUR_MILLIS;
+        LocalDateTime since = LocalDateTime.now().minusHours(RING_HOURS);
+        jdbcTemplate.query(
+                "SELECT oi.product_id, o.created_at, oi.quantity FROM order_items oi "
+                + "JOIN orders o ON o.order_id = oi.order_id WHERE o.created_at >= ?",
+                rs -> {
+                    Timestamp createdAt = rs.getTimestamp(2);
+                    long hour = createdAt.toLocalDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / HOUR_MILLIS;
+                    if (hour > currentHour - RING_HOURS && hour <= currentHour) {
+                        bucketFor(reloadedRing, hour).counts
+                                .computeIfAbsent(rs.getInt(1), id -> new LongAdder()).add(rs.getInt(3));
+                    }
+                },
+                Timestamp.valueOf(since));
+
+        long drift = 0;
+        for (Map.Entry<Integer, LongAdder> entry : reloaded.entrySet()) {
+            drift += Math.abs(entry.getValue().sum() - unitsSold(entry.getKey()));
+        }
+
+        totals = reloaded;
+        ring = reloadedRing;
+        topCache.clear();
+        reconciliations.increment();
+        lastDriftUnits = drift;
+        lastReconcileMillis = System.currentTimeMillis() - start;
+        System.out.println("📈 Sales counters reconciled: " + reloaded.size() + " products in "
+                + lastReconcileMillis + "ms (drift " + drift + " units)");
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("products", totals.size());
+        stats.put("ordersRecorded", ordersRecorded.sum());
+        stats.put("topRecomputes", topRecomputes.sum());
+        stats.put("reconciliations", reconciliations.sum());
+        stats.put("lastReconcileMillis", lastReconcileMillis);
+        stats.put("lastDriftUnits", lastDriftUnits);
+        return stats;
+    }
+
+    private CachedTop computeTop(Window window, int size, long currentHour) {
+        topRecomputes.increment();
+        Map<Integer, Long> units = new HashMap<>();
+        if (window == Window.ALL_TIME) {
+            totals.forEach((productId, adder) -> units.put(productId, adder.sum()));
+        } else {
+            for (HourBucket bucket : ring) {
+                if (bucket != null && bucket.hour > currentHour - window.hours && bucket.hour <= currentHour) {
+                    bucket.counts.forEach((productId, adder) -> units.merge(productId, adder.sum(), Long::sum));
+                }
+            }
+        }
+
+        // Min-heap of the best `size` entries seen so far
+        PriorityQueue<long[]> heap = new PriorityQueue<>(size + 1,
+                (a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(b[0], a[0]));
+        units.forEach((productId, sold) -> {
+            if (sold <= 0) {
+                return;
+            }
+            heap.offer(new long[] {productId, sold});
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        });
+
+        int[] productIds = new int[heap.size()];
+        long[] sold = new long[heap.size()];
+        for (int i = productIds.length - 1; i >= 0; i--) {
+            long[] entry = heap.poll();
+            productIds[i] = (int) entry[0];
+            sold[i] = entry[1];
+        }
+        return new CachedTop(productIds, sold, size, currentHour);
+    }
+
+    private HourBucket bucketFor(long hour) {
+        return bucketFor(ring, hour);
+    }
+
+    // A slot holding an older hour is replaced, which is what expires data past seven days
+    private static HourBucket bucketFor(HourBucket[] buckets, long hour) {
+        int slot = (int) (hour % RING_HOURS);
+        HourBucket bucket = buckets[slot];
+        if (bucket == null || bucket.hour != hour) {
+            synchronized (buckets) {
+                bucket = buckets[slot];
+                if (bucket == null || bucket.hour < hour) {
+                    bucket = new HourBucket(hour);
+                    buckets[slot] = bucket;
+                }
+            }
+        }
+        return bucket;
+    }
+
+    private static final class HourBucket {
+        private final long hour;
+        private final ConcurrentHashMap<Integer, LongAdder> counts = new ConcurrentHashMap<>();
+
+        HourBucket(long hour) {
+            this.hour = hour;
+        }
+    }
+
+    private static final class CachedTop {
+        private final int[] productIds;
+        private final long[] units;
+        private final int size;
+        private final long hour;
+
+        CachedTop(int[] productIds, long[] units, int size, long hour) {
+            this.productIds = productIds;
+            this.units = units;
+            this.size = size;
+            this.hour = hour;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.dto.ProductSearchResult;
+import com.example.sales_savy.model.Product;
+import com.example.sales_savy.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name and description. Terms live in a sorted map
+ * so a query token also matches every term it prefixes; hits are ranked by TF-IDF with
+ * name occurrences weighted above description occurrences. New and edited products are
+ * indexed incrementally from {@link CatalogChangedEvent}.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_PENALTY = 0.6f;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "the", "for", "with", "of", "in", "on", "to", "or");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Value("${search.max-prefix-expansions:64}")
+    private int maxPrefixExpansions;
+
+    @Value("${search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${search.max-limit:50}")
+    private int maxLimit;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (productId -> weighted term frequency)
+    private TreeMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+    private Map<Integer, IndexedDocument> documents = new HashMap<>();
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder totalQueryMicros = new LongAdder();
+    private final LongAdder incrementalUpdates = new LongAdder();
+
+    @PostConstruct
+    void buildInitialIndex() {
+        try {
+            CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+            rebuild(snapshot != null ? snapshot.getProducts() : productRepository.findAll());
+        } catch (Exception e) {
+            System.err.println("❌ Failed to build product search index: " + e.getMessage());
+        }
+    }
+
+    // Serialized so a full rebuild cannot swap out updates applied while it was building
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.affectsProductText()) {
+            return;
+        }
+        if (event.getProductIds().isEmpty()) {
+            // The snapshot is rebuilt asynchronously and may not have the change yet
+            rebuild(productRepository.findAll());
+            return;
+        }
+
+        List<Product> products = productRepository.findAllById(event.getProductIds());
+        Set<Integer> missing = new HashSet<>(event.getProductIds());
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                missing.remove(product.getProductId());
+                index(postings, documents, product);
+            }
+            missing.forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        incrementalUpdates.add(event.getProductIds().size());
+    }
+
+    /**
+     * Rank products matching every query token (as a whole term or a prefix) and return one page.
+     */
+    public ProductSearchResult search(String query, Integer page, Integer limit) {
+        long start = System.nanoTime();
+        int pageIndex = Math.max(0, page != null ? page : 0);
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : defaultLimit, maxLimit));
+
+        List<Map.Entry<Integer, Float>> hits;
+        lock.readLock().lock();
+        try {
+            hits = score(new ArrayList<>(new LinkedHashSet<>(tokenize(query))));
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort((a, b) -> {
+            int byScore = Float.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Integer.compare(a.getKey(), b.getKey());
+        });
+
+        int from = (int) Math.min((long) pageIndex * pageSize, hits.size());
+        int to = Math.min(from + pageSize, hits.size());
+        List<Product> products = resolve(hits.subList(from, to));
+
+        queries.increment();
+        totalQueryMicros.add((System.nanoTime() - start) / 1_000);
+        return new ProductSearchResult(products, hits.size(), pageIndex, pageSize);
+    }
+
+    public Map<String, Object> getStats() {
+        long queryCount = queries.sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("documents", documents.size());
+            stats.put("terms", postings.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("queries", queryCount);
+        stats.put("avgQueryMicros", queryCount == 0 ? 0.0 : (double) totalQueryMicros.sum() / queryCount);
+        stats.put("incrementalUpdates", incrementalUpdates.sum());
+        return stats;
+    }
+
+    private void rebuild(List<Product> products) {
+        long start = System.currentTimeMillis();
+
+        TreeMap<String, Map<Integer, Float>> newPostings = new TreeMap<>();
+        Map<Integer, IndexedDocument> newDocuments = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            index(newPostings, newDocuments, product);
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documents = newDocuments;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("🔎 Search index built: " + newDocuments.size() + " products, " + newPostings.size()
+                + " terms in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    // Caller holds the read lock
+    private List<Map.Entry<Integer, Float>> score(List<String> tokens) {
+        if (tokens.isEmpty() || documents.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int documentCount = documents.size();
+        Map<Integer, Float> scores = null;
+        for (String token : tokens) {
+            Map<Integer, Float> tokenScores = new HashMap<>();
+            Map<Integer, Float> exact = postings.get(token);
+            if (exact != null) {
+                accumulate(tokenScores, exact, idf(documentCount, exact.size()));
+            }
+            if (token.length() >= 2) {
+                int expansions = 0;
+                for (Map.Entry<String, Map<Integer, Float>> entry
+                        : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                    if (++expansions > maxPrefixExpansions) {
+                        break;
+                    }
+                    accumulate(tokenScores, entry.getValue(), idf(documentCount, entry.getValue().size()) * PREFIX_PENALTY);
+                }
+            }
+
+            // Every token must match somewhere
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<Integer, Float> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Integer, Float> entry : tokenScores.entrySet()) {
+                    Float earlier = previous.get(entry.getKey());
+                    if (earlier != null) {
+                        scores.put(entry.getKey(), earlier + entry.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return new ArrayList<>(scores.entrySet());
+    }
+
+    // A product matching a token through several terms keeps only its best term score
+    private static void accumulate(Map<Integer, Float> tokenScores, Map<Integer, Float> posting, float idf) {
+        for (Map.Entry<Integer, Float> entry : posting.entrySet()) {
+            tokenScores.merge(entry.getKey(), (float) (1 + Math.log(entry.getValue())) * idf, Math::max);
+        }
+    }
+
+    private static float idf(int documentCount, int documentFrequency) {
+        return (float) Math.log(1 + (double) documentCount / documentFrequency);
+    }
+
+    private List<Product> resolve(List<Map.Entry<Integer, Float>> hits) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        List<Product> products = new ArrayList<>(hits.size());
+        List<Integer> missing = new ArrayList<>();
+        for (Map.Entry<Integer, Float> hit : hits) {
+            Product product = snapshot != null ? snapshot.getProduct(hit.getKey()) : null;
+            if (product == null) {
+                missing.add(hit.getKey());
+            }
+            products.add(product);
+        }
+        if (missing.isEmpty()) {
+            return products;
+        }
+
+        // Indexed since the last snapshot rebuild
+        Map<Integer, Product> loaded = new HashMap<>();
+        productRepository.findAllById(missing).forEach(product -> loaded.put(product.getProductId(), product));
+        List<Product> resolved = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            Product product = products.get(i) != null ? products.get(i) : loaded.get(hits.get(i).getKey());
+            if (product != null) {
+                resolved.add(product);
+            }
+        }
+        return resolved;
+    }
+
+    private static void index(TreeMap<String, Map<Integer, Float>> postings, Map<Integer, IndexedDocument> documents,
+                              Product product) {
+        Integer productId = product.getProductId();
+        IndexedDocument existing = documents.get(productId);
+        if (existing != null) {
+            if (existing.matches(product)) {
+                return;
+            }
+            unindex(postings, productId, existing);
+        }
+
+        Map<String, Float> frequencies = new HashMap<>();
+        for (String term : tokenize(product.getName())) {
+            frequencies.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(product.getDescription())) {
+            frequencies.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        frequencies.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(productId, weight));
+        documents.put(productId, new IndexedDocument(product.getName(), product.getDescription(), frequencies.keySet().toArray(new String[0])));
+    }
+
+    // Caller holds the write lock
+    private void removeDocument(Integer productId) {
+        IndexedDocument existing = documents.remove(productId);
+        if (existing != null) {
+            unindex(postings, productId, existing);
+        }
+    }
+
+    private static void unindex(TreeMap<String, Map<Integer, Float>> postings, Integer productId, IndexedDocument document) {
+        for (String term : document.terms) {
+            Map<Integer, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower-cased letter/digit runs in order, without stop words; single characters are kept only if numeric.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> all = new ArrayList<>();
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (raw.isEmpty() || STOP_WORDS.contains(raw) || (raw.length() == 1 && !Character.isDigit(raw.charAt(0)))) {
+                continue;
+            }
+            all.add(raw);
+        }
+        return all;
+    }
+
+    // Keeps the indexed text itself so change detection cannot be fooled by a hash collision
+    private static final class IndexedDocument {
+        private final String name;
+        private final String description;
+        private final String[] terms;
+
+        IndexedDocument(String name, String description, String[] terms) {
+            this.name = name;
+            this.description = description;
+            this.terms = terms;
+        }
+
+        boolean matches(Product product) {
+            return Objects.equals(name, product.getName()) && Objects.equals(description, product.getDescription());
+        }
+    }
+}
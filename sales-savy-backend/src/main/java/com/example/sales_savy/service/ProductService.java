@@ -1,29 +1,228 @@
 package com.example.sales_savy.service;
 
+import com.example.sales_savy.dto.FacetResult;
+import com.example.sales_savy.dto.ProductCursor;
+import com.example.sales_savy.dto.ProductPage;
 import com.example.sales_savy.model.Product;
 import com.example.sales_savy.model.Category;
 import com.example.sales_savy.repository.ProductRepository;
 import com.example.sales_savy.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class ProductService {
     @Autowired private ProductRepository productRepository;
     @Autowired private CategoryRepository categoryRepository;
+    @Autowired private CatalogSnapshotService catalogSnapshotService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.page.default-size:24}")
+    private int defaultPageSize;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${catalog.batch.max-ids:100}")
+    private int maxBatchIds;
 
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        return snapshot != null ? snapshot.getProducts() : productRepository.findAll();
+    }
+
+    /**
+     * Keyset page ordered by (sort, productId). sort is productId, price or createdAt;
+     * order defaults to ascending, except newest-first for createdAt.
+     */
+    public ProductPage getProductsPage(String sort, String order, String cursorToken, Integer limit) {
+        String sortKey = sortKey(sort);
+        boolean descending = isDescending(sortKey, order);
+        int pageSize = pageSize(limit);
+
+        ProductCursor cursor = null;
+        if (cursorToken != null && !cursorToken.isBlank()) {
+            cursor = ProductCursor.decode(cursorToken);
+            if (!cursor.getSort().equals(sortKey) || cursor.isDescending() != descending) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort ordering = "productId".equals(sortKey)
+                ? Sort.by(direction, "productId")
+                : Sort.by(direction, sortKey).and(Sort.by(direction, "productId"));
+        Pageable pageable = PageRequest.of(0, pageSize + 1, ordering);
+
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        List<Product> rows = snapshot != null
+                ? snapshotPage(snapshot, sortKey, descending, cursor, pageable.getPageSize())
+                : fetchPage(sortKey, descending, cursor, pageable);
+        boolean hasMore = rows.size() > pageSize;
+        List<Product> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = page.get(page.size() - 1);
+            nextCursor = new ProductCursor(sortKey, descending, sortValue(last, sortKey), last.getProductId()).encode();
+        }
+        return new ProductPage(page, nextCursor, pageSize);
+    }
+
+    /**
+     * One page of a category in product id order; the name match is case-insensitive.
+     */
+    public ProductPage getCategoryPage(String categoryName, String cursorToken, Integer limit) {
+        int pageSize = pageSize(limit);
+        String categoryKey = CatalogSnapshot.categoryKey(categoryName);
+
+        int afterId = 0;
+        if (cursorToken != null && !cursorToken.isBlank()) {
+            ProductCursor cursor = ProductCursor.decode(cursorToken);
+            if (!"category".equals(cursor.getSort()) || !categoryKey.equals(cursor.getValue())) {
+                throw new IllegalArgumentException("Cursor does not match the requested category");
+            }
+            afterId = cursor.getProductId();
+        }
+
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        List<Product> rows = snapshot != null
+                ? snapshot.categoryPage(categoryName, afterId, pageSize + 1)
+                : productRepository.findCategoryPage(categoryName, afterId,
+                        PageRequest.of(0, pageSize + 1, Sort.by(Sort.Direction.ASC, "productId")));
+        boolean hasMore = rows.size() > pageSize;
+        List<Product> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            nextCursor = new ProductCursor("category", false, categoryKey, page.get(page.size() - 1).getProductId()).encode();
+        }
+        return new ProductPage(page, nextCursor, pageSize);
+    }
+
+    /**
+     * Response cache key for getProductsPage. Parameters are normalized the same way the page
+     * is built, so every spelling of one page (limit=101 vs 100, order=DESC vs desc) shares a key.
+     */
+    public String getProductsPageKey(String sort, String order, String cursorToken, Integer limit) {
+        String sortKey = sortKey(sort);
+        return "products:" + sortKey + ":" + (isDescending(sortKey, order) ? "desc" : "asc") + ":"
+                + pageSize(limit) + ":" + canonicalCursor(cursorToken);
+    }
+
+    /**
+     * Response cache key for getCategoryPage of a known category.
+     */
+    public String getCategoryPageKey(Category category, String cursorToken, Integer limit) {
+        return "category:" + category.getCategoryId() + ":" + pageSize(limit) + ":" + canonicalCursor(cursorToken);
+    }
+
+    /**
+     * Category by case-insensitive name from the snapshot; empty if unknown or there is no snapshot yet.
+     */
+    public Optional<Category> findCategory(String categoryName) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        return snapshot != null ? Optional.ofNullable(snapshot.getCategory(categoryName)) : Optional.empty();
+    }
+
+    public long countProductsInCategory(String categoryName) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        return snapshot != null ? snapshot.countInCategory(categoryName) : productRepository.countByCategoryCategoryName(categoryName);
+    }
+
+    /**
+     * Product count per category id; categories without products are omitted.
+     */
+    public Map<Integer, Integer> getCategoryProductCounts() {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getProductCountsByCategoryId();
+        }
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Product product : productRepository.findAll()) {
+            if (product.getCategory() != null) {
+                counts.merge(product.getCategory().getCategoryId(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Filter by price range, stock and categories from the facet index; no entities are loaded.
+     */
+    public FacetResult getFacets(BigDecimal minPrice, BigDecimal maxPrice, boolean inStockOnly,
+                                 List<Integer> categoryIds, Integer buckets, Integer page, Integer limit) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        if (snapshot == null) {
+            throw new IllegalStateException("Catalog index is not ready");
+        }
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+        int offset = Math.max(0, page != null ? page : 0) * pageSize;
+        int bucketCount = Math.max(1, Math.min(buckets != null ? buckets : 5, 50));
+        return snapshot.getFacets().query(minPrice, maxPrice, inStockOnly, categoryIds, bucketCount, offset, pageSize);
     }
 
     public Optional<Product> getProductById(Integer id) {
-        return productRepository.findById(id);
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        Product cached = snapshot != null ? snapshot.getProduct(id) : null;
+        // A product created since the last rebuild is not in the snapshot yet
+        return cached != null ? Optional.of(cached) : productRepository.findById(id);
+    }
+
+    /**
+     * Resolve many ids at once, aligned with the request: result.get(i) is the product for
+     * ids.get(i), or null if it does not exist. Ids missing from the snapshot are fetched
+     * together in one IN query.
+     */
+    public List<Product> getProductsByIds(List<Integer> ids) {
+        if (ids.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " ids per request");
+        }
+
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        Map<Integer, Product> found = new HashMap<>();
+        List<Integer> uncached = new ArrayList<>();
+        for (Integer id : ids) {
+            if (id == null || found.containsKey(id)) {
+                continue;
+            }
+            Product cached = snapshot != null ? snapshot.getProduct(id) : null;
+            found.put(id, cached);
+            if (cached == null) {
+                uncached.add(id);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            for (Product product : productRepository.findAllById(uncached)) {
+                found.put(product.getProductId(), product);
+            }
+        }
+
+        List<Product> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            result.add(id != null ? found.get(id) : null);
+        }
+        return result;
     }
 
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.forProducts(CatalogChangedEvent.Change.PRODUCTS_ADDED, List.of(saved.getProductId())));
+        return saved;
     }
 
     public List<Product> getProductsByCategory(Integer categoryId) {
@@ -31,14 +230,168 @@ public class ProductService {
     }
 
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        return snapshot != null ? snapshot.getCategories() : categoryRepository.findAll();
     }
 
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.forCatalog(CatalogChangedEvent.Change.CATEGORIES_UPDATED));
+        return saved;
+    }
+
+    // Same keyset semantics as fetchPage, cut from the snapshot's presorted lists
+    private List<Product> snapshotPage(CatalogSnapshot snapshot, String sortKey, boolean descending,
+                                       ProductCursor cursor, int size) {
+        List<Product> sorted = snapshot.sortedBy(sortKey);
+        int from;
+        if (cursor == null) {
+            from = descending ? sorted.size() - 1 : 0;
+        } else {
+            int index = Collections.binarySearch(sorted, cursorProbe(cursor, sortKey), CatalogSnapshot.comparatorFor(sortKey));
+            if (index >= 0) {
+                from = descending ? index - 1 : index + 1;
+            } else {
+                int insertion = -index - 1;
+                from = descending ? insertion - 1 : insertion;
+            }
+        }
+
+        List<Product> page = new ArrayList<>(size);
+        for (int i = from; i >= 0 && i < sorted.size() && page.size() < size; i += descending ? -1 : 1) {
+            page.add(sorted.get(i));
+        }
+        return page;
+    }
+
+    private static Product cursorProbe(ProductCursor cursor, String sortKey) {
+        Product probe = new Product();
+        probe.setProductId(cursor.getProductId());
+        if ("price".equals(sortKey)) {
+            probe.setPrice(parseCursorValue(() -> new BigDecimal(cursor.getValue())));
+        } else if ("createdAt".equals(sortKey)) {
+            probe.setCreatedAt(parseCursorValue(() -> LocalDateTime.parse(cursor.getValue())));
+        }
+        return probe;
+    }
+
+    private List<Product> fetchPage(String sortKey, boolean descending, ProductCursor cursor, Pageable pageable) {
+        if (cursor == null) {
+            // Rows without the sort value cannot be expressed as a cursor; the snapshot leaves them out too
+            switch (sortKey) {
+                case "price":
+                    return productRepository.findPricedPage(pageable);
+                case "createdAt":
+                    return productRepository.findDatedPage(pageable);
+                default:
+                    return productRepository.findPage(pageable);
+            }
+        }
+
+        Integer id = cursor.getProductId();
+        switch (sortKey) {
+            case "price":
+                BigDecimal price = parseCursorValue(() -> new BigDecimal(cursor.getValue()));
+                return descending ? productRepository.findPageBeforePrice(price, id, pageable)
+                                  : productRepository.findPageAfterPrice(price, id, pageable);
+            case "createdAt":
+                LocalDateTime createdAt = parseCursorValue(() -> LocalDateTime.parse(cursor.getValue()));
+                return descending ? productRepository.findPageBeforeCreatedAt(createdAt, id, pageable)
+                                  : productRepository.findPageAfterCreatedAt(createdAt, id, pageable);
+            default:
+                return descending ? productRepository.findPageBeforeId(id, pageable)
+                                  : productRepository.findPageAfterId(id, pageable);
+        }
+    }
+
+    private static String sortKey(String sort) {
+        return "price".equals(sort) || "createdAt".equals(sort) ? sort : "productId";
+    }
+
+    private static boolean isDescending(String sortKey, String order) {
+        return order != null ? "desc".equalsIgnoreCase(order) : "createdAt".equals(sortKey);
+    }
+
+    private int pageSize(Integer limit) {
+        return Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+    }
+
+    // Re-encoding drops any variation in how the same cursor was spelled
+    private static String canonicalCursor(String cursorToken) {
+        return cursorToken == null || cursorToken.isBlank() ? "" : ProductCursor.decode(cursorToken).encode();
+    }
+
+    private static <T> T parseCursorValue(Supplier<T> parser) {
+        try {
+            return parser.get();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String sortValue(Product product, String sortKey) {
+        switch (sortKey) {
+            case "price":
+                return product.getPrice().toPlainString();
+            case "createdAt":
+                return product.getCreatedAt().toString();
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Validator for one product, derived from that product's own fields so writes to other
+     * products leave it alone; null if the product is not in the snapshot.
+     */
+    public String getProductETag(Integer id) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        Product product = snapshot != null ? snapshot.getProduct(id) : null;
+        return product != null ? "product-" + id + "-" + Long.toHexString(snapshot.fingerprintOf(product)) : null;
+    }
+
+    /**
+     * Validator for a page from getProductsPage, covering only the products on it; shape is
+     * its getProductsPageKey. Null when there is no snapshot to vouch for the rows.
+     */
+    public String getProductsPageETag(String shape, ProductPage page) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        return snapshot != null ? "page-" + Long.toHexString(CatalogSnapshot.finish(pageHash(snapshot, shape, page))) : null;
+    }
+
+    /**
+     * Validator for a page from getCategoryPage, which also reports the category's name and total.
+     */
+    public String getCategoryPageETag(String shape, Category category, ProductPage page) {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        if (snapshot == null) {
+            return null;
+        }
+        long h = CatalogSnapshot.hash(pageHash(snapshot, shape, page), category.getCategoryName());
+        h = CatalogSnapshot.hash(h, (long) snapshot.countInCategory(category.getCategoryName()));
+        return "page-" + Long.toHexString(CatalogSnapshot.finish(h));
+    }
+
+    public String getAllProductsETag() {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        return snapshot != null ? "products-" + Long.toHexString(snapshot.getContentHash()) : null;
+    }
+
+    public String getCategoriesETag() {
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        return snapshot != null ? "categories-" + Long.toHexString(snapshot.getCategoriesHash()) : null;
+    }
+
+    private static long pageHash(CatalogSnapshot snapshot, String shape, ProductPage page) {
+        long h = CatalogSnapshot.hash(CatalogSnapshot.FNV_OFFSET, shape);
+        for (Product product : page.getProducts()) {
+            h = CatalogSnapshot.hash(h, snapshot.fingerprintOf(product));
+        }
+        return CatalogSnapshot.hash(h, page.getNextCursor());
     }
 
     public long getProductCount() {
-        return productRepository.count();
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        return snapshot != null ? snapshot.getProducts().size() : productRepository.count();
     }
 }
\ No newline at end of file
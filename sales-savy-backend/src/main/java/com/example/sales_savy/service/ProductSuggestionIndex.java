@@ -0,0 +1,328 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.model.Product;
+import com.example.sales_savy.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Typeahead over product names. Each normalized name is inserted into a character trie from
+ * its start and from every later word, and each node keeps its top-k products by units sold
+ * ({@link ProductSalesTracker}), so a lookup is a walk of the typed prefix with no ranking
+ * work. Readers never lock: child arrays and top-k arrays are replaced, never mutated.
+ * Writers are serialized.
+ */
+@Service
+public class ProductSuggestionIndex {
+
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong((Suggestion s) -> -s.unitsSold)
+            .thenComparingInt(s -> s.name.length())
+            .thenComparingInt(s -> s.productId);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSalesTracker productSalesTracker;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Value("${suggest.top-k:10}")
+    private int topK;
+
+    @Value("${suggest.max-depth:32}")
+    private int maxDepth;
+
+    private volatile Node root = new Node('\0');
+    private volatile int nodeCount;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder totalLookupNanos = new LongAdder();
+    private final LongAdder incrementalInserts = new LongAdder();
+    private final LongAdder databaseRebuilds = new LongAdder();
+
+    // Set while a database rebuild is queued, so a burst of catalog-wide events reads the table once
+    private final AtomicBoolean databaseRebuildQueued = new AtomicBoolean();
+
+    // Catalog change handling does its repository reads here rather than on the writing request's thread
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void buildInitialIndex() {
+        try {
+            CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+            rebuild(snapshot != null ? snapshot.getProducts() : productRepository.findAll());
+        } catch (Exception e) {
+            System.err.println("❌ Failed to build suggestion index: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        indexExecutor.shutdownNow();
+    }
+
+    /**
+     * Re-rank by current sales from the catalog snapshot; new products in between are inserted
+     * incrementally. The products table is only read when there is no snapshot yet.
+     */
+    @Scheduled(initialDelayString = "${suggest.rebuild-interval-ms:600000}",
+               fixedDelayString = "${suggest.rebuild-interval-ms:600000}")
+    public void refreshRanking() {
+        try {
+            CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+            rebuild(snapshot != null ? snapshot.getProducts() : productRepository.findAll());
+        } catch (Exception e) {
+            System.err.println("❌ Suggestion index rebuild failed: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.affectsProductText()) {
+            return;
+        }
+        // Renames and bulk loads need entries removed or re-ranked; a rebuild is simpler than unlinking.
+        // The snapshot still lags the write here, so that rebuild has to read the table.
+        if (event.getChange() != CatalogChangedEvent.Change.PRODUCTS_ADDED || event.getProductIds().isEmpty()) {
+            if (databaseRebuildQueued.compareAndSet(false, true)) {
+                indexExecutor.execute(this::rebuildFromDatabase);
+            }
+            return;
+        }
+
+        List<Integer> productIds = event.getProductIds();
+        indexExecutor.execute(() -> insertAdded(productIds));
+    }
+
+    private void rebuildFromDatabase() {
+        databaseRebuildQueued.set(false);
+        try {
+            rebuild(productRepository.findAll());
+            databaseRebuilds.increment();
+        } catch (Exception e) {
+            System.err.println("❌ Suggestion index rebuild failed: " + e.getMessage());
+        }
+    }
+
+    private void insertAdded(List<Integer> productIds) {
+        try {
+            List<Product> products = productRepository.findAllById(productIds);
+            synchronized (this) {
+                Node current = root;
+                for (Product product : products) {
+                    insert(current, new Suggestion(product.getProductId(), product.getName(), 0));
+                }
+            }
+            incrementalInserts.add(products.size());
+        } catch (Exception e) {
+            System.err.println("❌ Suggestion index insert failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Up to limit products whose name, or a word in it, starts with the given prefix, best sellers first.
+     */
+    public List<Map<String, Object>> suggest(String prefix, Integer limit) {
+        long start = System.nanoTime();
+        int size = Math.max(1, Math.min(limit != null ? limit : topK, topK));
+        String key = normalize(prefix);
+
+        List<Map<String, Object>> results = new ArrayList<>(size);
+        Node node = key.isEmpty() ? null : find(root, key);
+        if (node != null) {
+            Suggestion[] top = node.top;
+            for (int i = 0; i < top.length && i < size; i++) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("productId", top[i].productId);
+                entry.put("name", top[i].name);
+                results.add(entry);
+            }
+        }
+
+        lookups.increment();
+        totalLookupNanos.add(System.nanoTime() - start);
+        return results;
+    }
+
+    public Map<String, Object> getStats() {
+        long lookupCount = lookups.sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nodes", nodeCount);
+        stats.put("lookups", lookupCount);
+        stats.put("avgLookupMicros", lookupCount == 0 ? 0.0 : totalLookupNanos.sum() / 1_000.0 / lookupCount);
+        stats.put("incrementalInserts", incrementalInserts.sum());
+        stats.put("databaseRebuilds", databaseRebuilds.sum());
+        stats.put("topK", topK);
+        return stats;
+    }
+
+    private synchronized void rebuild(List<Product> products) {
+        long start = System.currentTimeMillis();
+        List<Suggestion> suggestions = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (product.getName() != null) {
+                suggestions.add(new Suggestion(product.getProductId(), product.getName(),
+                        productSalesTracker.unitsSold(product.getProductId())));
+            }
+        }
+        // Inserting best-first means each node's top-k fills in rank order without re-sorting
+        suggestions.sort(RANKING);
+
+        nodeCount = 0;
+        Node newRoot = new Node('\0');
+        for (Suggestion suggestion : suggestions) {
+            insert(newRoot, suggestion);
+        }
+        root = newRoot;
+        System.out.println("🔤 Suggestion index built: " + suggestions.size() + " products, " + nodeCount
+                + " nodes in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private void insert(Node trieRoot, Suggestion suggestion) {
+        String name = normalize(suggestion.name);
+        for (int start = 0; start < name.length(); start++) {
+            if (start == 0 || name.charAt(start - 1) == ' ') {
+                insertFrom(trieRoot, name, start, suggestion);
+            }
+        }
+    }
+
+    private void insertFrom(Node trieRoot, String name, int start, Suggestion suggestion) {
+        Node node = trieRoot;
+        int end = Math.min(name.length(), start + maxDepth);
+        for (int i = start; i < end; i++) {
+            node = node.childOrCreate(name.charAt(i), this);
+            node.offer(suggestion, topK);
+        }
+    }
+
+    private static Node find(Node trieRoot, String key) {
+        Node node = trieRoot;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Lower-case, letters and digits only, single spaces between words.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    static final class Suggestion {
+        final int productId;
+        final String name;
+        final long unitsSold;
+
+        Suggestion(int productId, String name, long unitsSold) {
+            this.productId = productId;
+            this.name = name;
+            this.unitsSold = unitsSold;
+        }
+    }
+
+    static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+        final char ch;
+        // Sorted by ch; replaced wholesale so readers always see a consistent array
+        volatile Node[] children = NO_CHILDREN;
+        volatile Suggestion[] top = NO_SUGGESTIONS;
+
+        Node(char ch) {
+            this.ch = ch;
+        }
+
+        Node child(char c) {
+            Node[] current = children;
+            int low = 0;
+            int high = current.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = current[mid].ch;
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return current[mid];
+                }
+            }
+            return null;
+        }
+
+        // Writers only; the owning index serializes calls
+        Node childOrCreate(char c, ProductSuggestionIndex owner) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node[] current = children;
+            Node created = new Node(c);
+            int insertAt = 0;
+            while (insertAt < current.length && current[insertAt].ch < c) {
+                insertAt++;
+            }
+            Node[] next = new Node[current.length + 1];
+            System.arraycopy(current, 0, next, 0, insertAt);
+            next[insertAt] = created;
+            System.arraycopy(current, insertAt, next, insertAt + 1, current.length - insertAt);
+            children = next;
+            owner.nodeCount++;
+            return created;
+        }
+
+        void offer(Suggestion suggestion, int k) {
+            Suggestion[] current = top;
+            for (Suggestion existing : current) {
+                if (existing.productId == suggestion.productId) {
+                    return;
+                }
+            }
+            if (current.length == k && RANKING.compare(suggestion, current[k - 1]) >= 0) {
+                return;
+            }
+
+            Suggestion[] next = Arrays.copyOf(current, Math.min(k, current.length + 1));
+            int position = current.length < k ? current.length : k - 1;
+            while (position > 0 && RANKING.compare(suggestion, next[position - 1]) < 0) {
+                next[position] = next[position - 1];
+                position--;
+            }
+            next[position] = suggestion;
+            top = next;
+        }
+    }
+}
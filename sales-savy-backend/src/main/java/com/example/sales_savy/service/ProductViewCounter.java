@@ -0,0 +1,202 @@
+package com.example.sales_savy.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Product detail view counts. A view is one striped LongAdder increment; a scheduled
+ * flusher writes the deltas accumulated since the last flush to product_stats in one
+ * batched upsert, so request traffic never turns into per-view row writes.
+ */
+@Service
+public class ProductViewCounter {
+
+    // Selecting through products means an id that no longer exists is never written
+    private static final String UPSERT_SQL =
+            "INSERT INTO product_stats (product_id, view_count, updated_at) "
+            + "SELECT p.product_id, ?, ? FROM products p WHERE p.product_id = ? "
+            + "ON DUPLICATE KEY UPDATE product_stats.view_count = product_stats.view_count + ?, product_stats.updated_at = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${product-views.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @Value("${product-views.max-products:200000}")
+    private int maxProducts;
+
+    private final ConcurrentHashMap<Integer, ViewCount> counts = new ConcurrentHashMap<>();
+
+    private final LongAdder views = new LongAdder();
+    private final LongAdder droppedViews = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+
+    @PostConstruct
+    void loadPersistedCounts() {
+        try {
+            int orphaned = jdbcTemplate.update("DELETE s FROM product_stats s LEFT JOIN products p "
+                    + "ON p.product_id = s.product_id WHERE p.product_id IS NULL");
+            if (orphaned > 0) {
+                System.out.println("🧹 Removed " + orphaned + " view count rows for missing products");
+            }
+            jdbcTemplate.query("SELECT product_id, view_count FROM product_stats",
+                    rs -> { counts.computeIfAbsent(rs.getInt(1), id -> new ViewCount()).persisted = rs.getLong(2); });
+            System.out.println("✅ Loaded view counts for " + counts.size() + " products");
+        } catch (Exception e) {
+            System.err.println("❌ Failed to load product view counts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hot path: a single counter increment once the product has been seen. Callers must only
+     * pass ids that resolved to a product, so the map stays bounded by the catalog.
+     */
+    public void recordView(int productId) {
+        ViewCount count = counts.get(productId);
+        if (count == null) {
+            // Backstop only; callers already filter out unknown ids
+            if (counts.size() >= maxProducts) {
+                droppedViews.increment();
+                return;
+            }
+            count = counts.computeIfAbsent(productId, id -> new ViewCount());
+        }
+        count.adder.increment();
+        views.increment();
+    }
+
+    public long viewCount(int productId) {
+        ViewCount count = counts.get(productId);
+        return count != null ? count.total() : 0;
+    }
+
+    /**
+     * Most viewed products as (productId, views) maps, highest first.
+     */
+    public List<Map<String, Object>> mostViewed(int limit) {
+        int size = Math.max(1, limit);
+        PriorityQueue<long[]> heap = new PriorityQueue<>(size + 1, (a, b) -> Long.compare(a[1], b[1]));
+        counts.forEach((productId, count) -> {
+            heap.offer(new long[] {productId, count.total()});
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        });
+
+        List<Map<String, Object>> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            long[] top = heap.poll();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("productId", (int) top[0]);
+            entry.put("views", top[1]);
+            result.add(0, entry);
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${product-views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<Object[]> rows = new ArrayList<>();
+        List<ViewCount> flushed = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        counts.forEach((productId, count) -> {
+            // sum() may miss an increment in flight; it is picked up by the next flush, never lost
+            long delta = count.adder.sum() - count.flushed;
+            if (delta > 0) {
+                rows.add(new Object[] {delta, now, productId, delta, now});
+                flushed.add(count);
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < rows.size(); from += flushBatchSize) {
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, rows.subList(from, Math.min(rows.size(), from + flushBatchSize)));
+                }
+            });
+            for (int i = 0; i < flushed.size(); i++) {
+                flushed.get(i).flushed += (long) rows.get(i)[0];
+            }
+            rowsWritten.add(rows.size());
+        } catch (Exception e) {
+            // Deltas stay pending and are retried on the next flush
+            failedFlushes.increment();
+            System.err.println("❌ Failed to flush view counts for " + rows.size() + " products: " + e.getMessage());
+        } finally {
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            flushes.increment();
+            lastFlushMillis.set(elapsed);
+            maxFlushMillis.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        System.out.println("🔄 Flushing pending product view counts before shutdown");
+        flush();
+    }
+
+    public Map<String, Object> getStats() {
+        long pending = 0;
+        for (ViewCount count : counts.values()) {
+            pending += count.adder.sum() - count.flushed;
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trackedProducts", counts.size());
+        stats.put("views", views.sum());
+        stats.put("pendingViews", pending);
+        stats.put("droppedViews", droppedViews.sum());
+        stats.put("rowsWritten", rowsWritten.sum());
+        stats.put("flushes", flushes.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        stats.put("lastFlushMillis", lastFlushMillis.get());
+        stats.put("maxFlushMillis", maxFlushMillis.get());
+        stats.put("mostViewed", mostViewed(5));
+        return stats;
+    }
+
+    /**
+     * Views since startup in a LongAdder plus what was already persisted. flushed is
+     * only written under the flush lock, persisted only during bootstrap.
+     */
+    static final class ViewCount {
+        final LongAdder adder = new LongAdder();
+        volatile long persisted;
+        volatile long flushed;
+
+        long total() {
+            return persisted + adder.sum();
+        }
+    }
+}
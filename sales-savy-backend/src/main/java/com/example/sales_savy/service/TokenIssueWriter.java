@@ -0,0 +1,257 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.model.JWTToken;
+import com.example.sales_savy.repository.JWTTokenRepository;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind persistence for issued JWTs. Login and register only enqueue the record;
+ * a scheduled writer drains the queue into jwt_tokens with JDBC batch inserts. When the
+ * queue is full the record is saved synchronously so no issued token is lost. A failed
+ * batch is retried on a later tick with exponential backoff; rows the database rejects
+ * outright (e.g. the user was deleted) are written one by one and the bad ones dropped.
+ */
+@Service
+public class TokenIssueWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO jwt_tokens (user_id, token, jti, expires_at, created_at, revoked_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JWTTokenRepository jwtTokenRepository;
+
+    @Value("${jwt.issue-writer.flush-size:500}")
+    private int flushSize;
+
+    @Value("${jwt.issue-writer.retry-backoff-ms:1000}")
+    private long retryBackoffMillis;
+
+    @Value("${jwt.issue-writer.max-retry-backoff-ms:60000}")
+    private long maxRetryBackoffMillis;
+
+    private final BlockingQueue<JWTToken> queue;
+
+    // jti -> revokedAt for tokens logged out before their row was written
+    private final ConcurrentHashMap<String, LocalDateTime> pendingRevocations = new ConcurrentHashMap<>();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder fallbackWrites = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder droppedRecords = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder totalFlushMillis = new LongAdder();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+
+    // Guarded by drain()
+    private int consecutiveFailures;
+    private long nextAttemptMillis;
+
+    public TokenIssueWriter(@Value("${jwt.issue-writer.queue-capacity:10000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Queue an issued token for persistence; falls back to a synchronous insert when the queue is full.
+     */
+    public void submit(JWTToken jwtToken) {
+        if (queue.offer(jwtToken)) {
+            enqueued.increment();
+            return;
+        }
+
+        fallbackWrites.increment();
+        System.out.println("⚠️ Token write queue full, saving synchronously");
+        jwtTokenRepository.save(jwtToken);
+    }
+
+    /**
+     * Persist a logout for a token whose row may still be waiting in the queue.
+     */
+    public void markRevoked(String jti, LocalDateTime revokedAt) {
+        // Register first so a flush racing with the update below still writes revoked_at
+        pendingRevocations.put(jti, revokedAt);
+        if (jwtTokenRepository.markRevokedByJti(jti, revokedAt) > 0) {
+            pendingRevocations.remove(jti);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.issue-writer.flush-interval-ms:200}")
+    public void flush() {
+        if (System.currentTimeMillis() >= nextAttemptMillis) {
+            drain();
+        }
+        pendingRevocations.values().removeIf(revokedAt -> revokedAt.isBefore(LocalDateTime.now().minusDays(1)));
+    }
+
+    @PreDestroy
+    void drainOnShutdown() {
+        System.out.println("🔄 Flushing " + queue.size() + " queued token records before shutdown");
+        drain();
+    }
+
+    // Writes at most what was queued when the tick started, so requeued records wait for a later tick
+    private synchronized void drain() {
+        int remaining = queue.size();
+        List<JWTToken> batch = new ArrayList<>(Math.min(remaining, flushSize));
+        while (remaining > 0 && queue.drainTo(batch, Math.min(remaining, flushSize)) > 0) {
+            remaining -= batch.size();
+            boolean written = writeBatch(batch);
+            batch.clear();
+            if (!written) {
+                consecutiveFailures++;
+                long backoff = Math.min(maxRetryBackoffMillis, retryBackoffMillis << Math.min(consecutiveFailures - 1, 20));
+                nextAttemptMillis = System.currentTimeMillis() + backoff;
+                System.err.println("⚠️ Token writer backing off for " + backoff + "ms after " + consecutiveFailures + " failed flushes");
+                return;
+            }
+        }
+        consecutiveFailures = 0;
+        nextAttemptMillis = 0;
+    }
+
+    public Map<String, Object> getStats() {
+        long flushCount = flushes.sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueRemainingCapacity", queue.remainingCapacity());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("written", written.sum());
+        stats.put("fallbackWrites", fallbackWrites.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        stats.put("droppedRecords", droppedRecords.sum());
+        stats.put("flushes", flushCount);
+        stats.put("lastFlushMillis", lastFlushMillis.get());
+        stats.put("maxFlushMillis", maxFlushMillis.get());
+        stats.put("avgFlushMillis", flushCount == 0 ? 0.0 : (double) totalFlushMillis.sum() / flushCount);
+        return stats;
+    }
+
+    /**
+     * @return false if the batch failed for a reason worth retrying and was put back in the queue
+     */
+    private boolean writeBatch(List<JWTToken> batch) {
+        long start = System.nanoTime();
+        Map<String, LocalDateTime> writtenRevocations = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(),
+                        (ps, token) -> bind(ps, token, writtenRevocations)));
+            written.add(batch.size());
+            settleRevocations(batch, writtenRevocations);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Some row can never be inserted; isolate it instead of retrying the whole batch
+            failedFlushes.increment();
+            System.err.println("❌ Token batch rejected, writing " + batch.size() + " records individually: " + e.getMessage());
+            writeIndividually(batch);
+            return true;
+        } catch (Exception e) {
+            failedFlushes.increment();
+            System.err.println("❌ Failed to write " + batch.size() + " token records: " + e.getMessage());
+            requeue(batch);
+            return false;
+        } finally {
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            flushes.increment();
+            totalFlushMillis.add(elapsed);
+            lastFlushMillis.set(elapsed);
+            maxFlushMillis.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private void writeIndividually(List<JWTToken> batch) {
+        for (JWTToken token : batch) {
+            Map<String, LocalDateTime> writtenRevocations = new HashMap<>();
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, token, writtenRevocations));
+                written.increment();
+                settleRevocations(List.of(token), writtenRevocations);
+            } catch (DataIntegrityViolationException e) {
+                droppedRecords.increment();
+                System.err.println("❌ Dropping token record for user " + token.getUser().getUserId() + ": " + e.getMessage());
+            } catch (Exception e) {
+                requeue(List.of(token));
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, JWTToken token, Map<String, LocalDateTime> writtenRevocations) throws SQLException {
+        LocalDateTime revokedAt = token.getJti() != null ? pendingRevocations.get(token.getJti()) : null;
+        if (revokedAt != null) {
+            writtenRevocations.put(token.getJti(), revokedAt);
+        }
+        ps.setInt(1, token.getUser().getUserId());
+        ps.setString(2, token.getToken());
+        ps.setString(3, token.getJti());
+        ps.setTimestamp(4, Timestamp.valueOf(token.getExpiresAt()));
+        ps.setTimestamp(5, Timestamp.valueOf(token.getCreatedAt()));
+        ps.setTimestamp(6, revokedAt != null ? Timestamp.valueOf(revokedAt) : null);
+    }
+
+    // A logout that arrived while the batch was in flight may have missed both the insert and the update
+    private void settleRevocations(List<JWTToken> batch, Map<String, LocalDateTime> writtenRevocations) {
+        for (JWTToken token : batch) {
+            String jti = token.getJti();
+            if (jti == null) {
+                continue;
+            }
+            LocalDateTime pending = pendingRevocations.get(jti);
+            if (pending == null) {
+                continue;
+            }
+            if (!pending.equals(writtenRevocations.get(jti))) {
+                jwtTokenRepository.markRevokedByJti(jti, pending);
+            }
+            pendingRevocations.remove(jti, pending);
+        }
+    }
+
+    // Put a failed batch back for the next flush; anything that no longer fits is written one by one
+    private void requeue(List<JWTToken> batch) {
+        for (JWTToken token : batch) {
+            if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+                continue;
+            }
+            if (!queue.offer(token)) {
+                try {
+                    jwtTokenRepository.save(token);
+                    fallbackWrites.increment();
+                } catch (Exception e) {
+                    droppedRecords.increment();
+                    System.err.println("❌ Dropping token record for user " + token.getUser().getUserId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
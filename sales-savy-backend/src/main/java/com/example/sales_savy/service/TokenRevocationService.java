@@ -0,0 +1,181 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.model.JWTToken;
+import com.example.sales_savy.repository.JWTTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory set of revoked token IDs (jti). A bloom filter answers the common
+ * "not revoked" case without touching the exact set; entries drop out once the
+ * token's own expiry has passed, so memory is bounded by live revoked tokens.
+ */
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private JWTTokenRepository jwtTokenRepository;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    // tokenId -> token expiry (epoch millis)
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder bloomPositives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    @PostConstruct
+    void loadRevokedTokens() {
+        bloomFilter = new BloomFilter(expectedEntries);
+        try {
+            List<JWTToken> tokens = jwtTokenRepository.findByRevokedAtIsNotNullAndExpiresAtAfter(LocalDateTime.now());
+            for (JWTToken token : tokens) {
+                String tokenId = token.getJti() != null ? token.getJti() : TokenVerificationService.hash(token.getToken());
+                revoke(tokenId, toEpochMillis(token.getExpiresAt()));
+            }
+            System.out.println("✅ Loaded " + tokens.size() + " revoked tokens into revocation set");
+        } catch (Exception e) {
+            System.err.println("❌ Failed to load revoked tokens: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Constant-time check; most tokens are rejected by the bloom filter alone.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        checks.increment();
+        if (!bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+
+        bloomPositives.increment();
+        Long expiresAt = revoked.get(tokenId);
+        if (expiresAt == null) {
+            falsePositives.increment();
+            return false;
+        }
+        return expiresAt > System.currentTimeMillis();
+    }
+
+    public synchronized void revoke(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(tokenId, expiresAtMillis);
+        bloomFilter.add(tokenId);
+    }
+
+    /**
+     * Drop entries whose token has expired anyway and rebuild the bloom filter without them.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval-ms:60000}")
+    public synchronized void sweepExpired() {
+        long now = System.currentTimeMillis();
+        boolean removed = revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (!removed) {
+            return;
+        }
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+        revoked.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("revokedTokens", revoked.size());
+        stats.put("bloomBits", bloomFilter.bitSize());
+        stats.put("checks", checks.sum());
+        stats.put("bloomPositives", bloomPositives.sum());
+        stats.put("falsePositives", falsePositives.sum());
+        return stats;
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Fixed-size bloom filter sized for ~1% false positives at the expected entry count.
+     */
+    static final class BloomFilter {
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray words;
+        private final int bits;
+
+        BloomFilter(int expectedEntries) {
+            // m = -n ln(p) / (ln 2)^2 with p = 0.01 is roughly 9.6 bits per entry
+            long wanted = (long) Math.ceil(expectedEntries * 9.6);
+            this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(1024, wanted));
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        void add(String value) {
+            long hash = mix(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bits;
+                int index = bit >>> 6;
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(index);
+                    if ((current & mask) != 0) break;
+                } while (!words.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = mix(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bits;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int bitSize() {
+            return bits;
+        }
+
+        // 64-bit FNV-1a followed by a murmur3 finalizer
+        private static long mix(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe53b1a34L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.dto.TokenPrincipal;
+import com.example.sales_savy.model.Role;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verifies JWTs with a signing key and parser built once at startup, and caches the
+ * verified principal per token (keyed by SHA-256 of the token) until the token's exp.
+ */
+@Service
+public class TokenVerificationService {
+
+    @Value("${jwt.secret}")
+    private String SECRET_KEY;
+
+    @Value("${jwt.verify-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private final ConcurrentHashMap<String, TokenPrincipal> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        System.out.println("✅ JWT signing key and parser initialized (verify cache size: " + maxEntries + ")");
+    }
+
+    public SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Verify a token and return its principal, or null if the token is invalid or expired.
+     */
+    public TokenPrincipal verify(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        String cacheKey = hash(token);
+
+        TokenPrincipal cached = cache.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                hits.increment();
+                return cached;
+            }
+            cache.remove(cacheKey, cached);
+        }
+
+        misses.increment();
+        TokenPrincipal principal = parse(token, cacheKey);
+        if (principal == null || principal.isExpired(now)) {
+            rejected.increment();
+            return null;
+        }
+
+        if (cache.size() >= maxEntries) {
+            evict(now);
+        }
+        cache.put(cacheKey, principal);
+        return principal;
+    }
+
+    /**
+     * Parse and verify the signature of a token without touching the cache.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    public void invalidate(String token) {
+        if (token != null) {
+            cache.remove(hash(token));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("rejected", rejected.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    // Tokens issued before jti was added are identified by their hash instead
+    private TokenPrincipal parse(String token, String tokenHash) {
+        try {
+            Claims claims = parseClaims(token);
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+
+            String roleClaim = claims.get("role", String.class);
+            Role role = roleClaim != null ? Role.valueOf(roleClaim) : Role.CUSTOMER;
+
+            return new TokenPrincipal(
+                    claims.getId() != null ? claims.getId() : tokenHash,
+                    claims.get("userId", Integer.class),
+                    claims.getSubject(),
+                    role,
+                    claims.getExpiration().getTime());
+        } catch (Exception e) {
+            System.out.println("❌ Token verification failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Drop expired entries first; if the cache is still full, shed entries in hash order.
+    private void evict(long now) {
+        cache.values().removeIf(principal -> principal.isExpired(now));
+
+        int target = (int) (maxEntries * 0.9);
+        Iterator<String> keys = cache.keySet().iterator();
+        while (cache.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.sales_savy.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * "Trending now": exponentially decayed activity per product from orders and add-to-cart
+ * events. Each score is kept as a natural log relative to a fixed landmark time, so adding
+ * an event is a lock-free CAS on the double's bits and no periodic rescaling is needed;
+ * decay is applied only when scores are read. A fixed tick ranks the top-k and publishes an
+ * immutable result that reads simply return.
+ */
+@Service
+public class TrendingProductsService {
+
+    private static final double EMPTY = Double.NEGATIVE_INFINITY;
+    // Marks a score pruned by refresh(); record() must not add to it
+    private static final long PRUNED = Double.doubleToRawLongBits(Double.NaN);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${trending.half-life-minutes:360}")
+    private double halfLifeMinutes;
+
+    @Value("${trending.order-weight:3.0}")
+    private double orderWeight;
+
+    @Value("${trending.cart-weight:1.0}")
+    private double cartWeight;
+
+    // One event can move a product by at most this many units, whatever quantity it claims
+    @Value("${trending.max-units-per-event:5}")
+    private int maxUnitsPerEvent;
+
+    @Value("${trending.top-k:20}")
+    private int topK;
+
+    // Scores below this (after decay) are dropped on the next tick
+    @Value("${trending.min-score:0.01}")
+    private double minScore;
+
+    private final long landmarkMillis = System.currentTimeMillis();
+
+    // productId -> log(score at landmark time), as raw double bits
+    private final ConcurrentHashMap<Integer, AtomicLong> logScores = new ConcurrentHashMap<>();
+    private volatile Trending current = new Trending(new int[0], new double[0], landmarkMillis);
+
+    private final LongAdder eventsApplied = new LongAdder();
+    private final LongAdder ticks = new LongAdder();
+    private volatile long lastTickMicros;
+
+    @PostConstruct
+    void seedFromRecentOrders() {
+        try {
+            // Activity older than about ten half-lives has decayed to nothing
+            LocalDateTime since = LocalDateTime.now().minusMinutes((long) (halfLifeMinutes * 10));
+            jdbcTemplate.query(
+                    "SELECT oi.product_id, o.created_at, oi.quantity FROM order_items oi "
+                    + "JOIN orders o ON o.order_id = oi.order_id WHERE o.created_at >= ?",
+                    rs -> {
+                        long at = rs.getTimestamp(2).toLocalDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                        record(rs.getInt(1), orderWeight * units(rs.getInt(3)), at);
+                    },
+                    Timestamp.valueOf(since));
+            refresh();
+            System.out.println("📊 Trending scores seeded for " + logScores.size() + " products");
+        } catch (Exception e) {
+            System.err.println("❌ Failed to seed trending scores: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        for (int i = 0; i < event.size(); i++) {
+            record(event.productIdAt(i), orderWeight * units(event.quantityAt(i)), event.getPlacedAtMillis());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCartItemAdded(CartItemAddedEvent event) {
+        record(event.getProductId(), cartWeight * units(event.getQuantity()), event.getAddedAtMillis());
+    }
+
+    /**
+     * The latest ranking from the last tick; constant time regardless of traffic.
+     */
+    public Trending getTrending() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${trending.tick-ms:10000}")
+    public void refresh() {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        double nowOffset = (now - landmarkMillis) * decayPerMilli();
+        double pruneBelow = Math.log(minScore) + nowOffset;
+
+        PriorityQueue<double[]> heap = new PriorityQueue<>(topK + 1, (a, b) -> Double.compare(a[1], b[1]));
+        logScores.forEach((productId, bits) -> {
+            long observed = bits.get();
+            double logScore = Double.longBitsToDouble(observed);
+            if (observed == PRUNED) {
+                return;
+            }
+            if (logScore < pruneBelow) {
+                // Only prune the value we looked at; a racing record() wins the CAS and keeps the entry
+                if (bits.compareAndSet(observed, PRUNED)) {
+                    logScores.remove(productId, bits);
+                    return;
+                }
+                logScore = Double.longBitsToDouble(bits.get());
+            }
+            heap.offer(new double[] {productId, logScore});
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        });
+
+        int[] productIds = new int[heap.size()];
+        double[] scores = new double[heap.size()];
+        for (int i = productIds.length - 1; i >= 0; i--) {
+            double[] entry = heap.poll();
+            productIds[i] = (int) entry[0];
+            scores[i] = Math.exp(entry[1] - nowOffset);
+        }
+        current = new Trending(productIds, scores, now);
+        ticks.increment();
+        lastTickMicros = (System.nanoTime() - start) / 1_000;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trackedProducts", logScores.size());
+        stats.put("eventsApplied", eventsApplied.sum());
+        stats.put("ticks", ticks.sum());
+        stats.put("lastTickMicros", lastTickMicros);
+        stats.put("halfLifeMinutes", halfLifeMinutes);
+        stats.put("computedAgeMillis", System.currentTimeMillis() - current.computedAtMillis);
+        return stats;
+    }
+
+    // Adds weight w at time t to the landmark-relative log score
+    void record(int productId, double weight, long atMillis) {
+        if (weight <= 0) {
+            return;
+        }
+        double addition = Math.log(weight) + (atMillis - landmarkMillis) * decayPerMilli();
+        while (true) {
+            AtomicLong bits = logScores.computeIfAbsent(productId, id -> new AtomicLong(Double.doubleToRawLongBits(EMPTY)));
+            long currentBits = bits.get();
+            if (currentBits == PRUNED) {
+                // refresh() is about to drop this entry; drop it ourselves and start a fresh one
+                logScores.remove(productId, bits);
+                continue;
+            }
+            double updated = logAddExp(Double.longBitsToDouble(currentBits), addition);
+            if (bits.compareAndSet(currentBits, Double.doubleToRawLongBits(updated))) {
+                break;
+            }
+        }
+        eventsApplied.increment();
+    }
+
+    /**
+     * log(e^a + e^b) without overflow; EMPTY (negative infinity) is the log of zero.
+     */
+    static double logAddExp(double a, double b) {
+        if (a == EMPTY) {
+            return b;
+        }
+        if (b == EMPTY) {
+            return a;
+        }
+        return Math.max(a, b) + Math.log1p(Math.exp(-Math.abs(a - b)));
+    }
+
+    private double decayPerMilli() {
+        return Math.log(2) / (halfLifeMinutes * 60_000);
+    }
+
+    private double units(int quantity) {
+        return Math.max(0, Math.min(quantity, maxUnitsPerEvent));
+    }
+
+    /**
+     * Top products by decayed score at computedAtMillis, highest first.
+     */
+    public static final class Trending {
+        private final int[] productIds;
+        private final double[] scores;
+        private final long computedAtMillis;
+
+        Trending(int[] productIds, double[] scores, long computedAtMillis) {
+            this.productIds = productIds;
+            this.scores = scores;
+            this.computedAtMillis = computedAtMillis;
+        }
+
+        public int size() { return productIds.length; }
+        public int productIdAt(int index) { return productIds[index]; }
+        public double scoreAt(int index) { return scores[index]; }
+        public long getComputedAtMillis() { return computedAtMillis; }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.dto.UserPrincipal;
+import com.example.sales_savy.repository.UserRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, TTL-based cache of {@link UserPrincipal} snapshots keyed by userId.
+ * Writers of user rows call {@link #invalidate(Integer)} so role and enabled
+ * changes take effect on the next request rather than after the TTL.
+ */
+@Service
+public class UserPrincipalCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${user-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${user-cache.max-entries:50000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<Integer, Entry> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Cached snapshot for the user, loading it on a miss; null if the user does not exist.
+     */
+    public UserPrincipal get(Integer userId) {
+        if (userId == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.principal;
+        }
+
+        misses.increment();
+        UserPrincipal principal = userRepository.findById(userId).map(UserPrincipal::from).orElse(null);
+        if (principal == null) {
+            cache.remove(userId);
+            return null;
+        }
+
+        if (cache.size() >= maxEntries) {
+            evict(now);
+        }
+        cache.put(userId, new Entry(principal, now + ttlMillis));
+        return principal;
+    }
+
+    public void invalidate(Integer userId) {
+        if (userId != null && cache.remove(userId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMillis", ttlMillis);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    // Drop stale entries first; if still full, shed entries in hash order.
+    private void evict(long now) {
+        int before = cache.size();
+        cache.values().removeIf(entry -> entry.expiresAt <= now);
+
+        int target = (int) (maxEntries * 0.9);
+        Iterator<Integer> keys = cache.keySet().iterator();
+        while (cache.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        evictions.add(Math.max(0, before - cache.size()));
+    }
+
+    private static final class Entry {
+        final UserPrincipal principal;
+        final long expiresAt;
+
+        Entry(UserPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
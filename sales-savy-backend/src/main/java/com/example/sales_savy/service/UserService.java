@@ -4,7 +4,6 @@ import com.example.sales_savy.model.User;
 import com.example.sales_savy.model.Role;
 import com.example.sales_savy.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
@@ -12,7 +11,8 @@ import java.util.Optional;
 @Service
 public class UserService {
     @Autowired private UserRepository userRepository;
-    @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private PasswordHashingService passwordHashingService;
+    @Autowired private UserPrincipalCache userPrincipalCache;
 
     public User registerUser(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -22,7 +22,7 @@ public class UserService {
             throw new RuntimeException("Email already exists");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
         if (user.getRole() == null) {
             user.setRole(Role.CUSTOMER);
         }
@@ -42,7 +42,9 @@ public class UserService {
         if (!userRepository.existsById(user.getUserId())) {
             throw new RuntimeException("User not found");
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userPrincipalCache.invalidate(saved.getUserId());
+        return saved;
     }
 
     public void deleteUser(Integer id) {
@@ -50,6 +52,7 @@ public class UserService {
             throw new RuntimeException("User not found");
         }
         userRepository.deleteById(id);
+        userPrincipalCache.invalidate(id);
     }
 
     public long getUserCount() {
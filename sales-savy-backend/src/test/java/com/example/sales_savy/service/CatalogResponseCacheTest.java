@@ -0,0 +1,38 @@
+package com.example.sales_savy.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogResponseCacheTest {
+
+    @Test
+    void gzipAcceptedUnlessQualityIsZero() {
+        assertTrue(CatalogResponseCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(CatalogResponseCache.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertFalse(CatalogResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(CatalogResponseCache.acceptsGzip("deflate, gzip; q=0.000"));
+        assertFalse(CatalogResponseCache.acceptsGzip("identity"));
+        assertFalse(CatalogResponseCache.acceptsGzip(null));
+    }
+
+    @Test
+    void explicitGzipEntryOverridesWildcard() {
+        assertTrue(CatalogResponseCache.acceptsGzip("*"));
+        assertFalse(CatalogResponseCache.acceptsGzip("*;q=0"));
+        assertFalse(CatalogResponseCache.acceptsGzip("*, gzip;q=0"));
+        assertTrue(CatalogResponseCache.acceptsGzip("*;q=0, gzip"));
+    }
+
+    @Test
+    void ifNoneMatchAcceptsEitherEncodingVariant() {
+        assertEquals("product-7-ab", CatalogResponseCache.matchingVariant("product-7-ab", "\"product-7-ab\""));
+        assertEquals("product-7-ab-gzip", CatalogResponseCache.matchingVariant("product-7-ab", "\"x\", W/\"product-7-ab-gzip\""));
+        assertEquals("product-7-ab", CatalogResponseCache.matchingVariant("product-7-ab", "*"));
+        assertNull(CatalogResponseCache.matchingVariant("product-7-ab", "\"product-7-cd\""));
+        assertNull(CatalogResponseCache.matchingVariant(null, "*"));
+    }
+}
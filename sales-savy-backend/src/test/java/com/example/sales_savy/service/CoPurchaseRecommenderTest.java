@@ -0,0 +1,75 @@
+package com.example.sales_savy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoPurchaseRecommenderTest {
+
+    @Test
+    void productMovesUpAsItsCountPassesOthers() {
+        CoPurchaseRecommender.CoPurchaseRow row = new CoPurchaseRecommender.CoPurchaseRow();
+        increment(row, 10, 3, 2);
+        increment(row, 20, 2, 2);
+        assertArrayEquals(new int[] {10, 20}, row.topIds);
+
+        // 30 ties the minimum and stays out, then passes it and evicts 20
+        increment(row, 30, 2, 2);
+        assertArrayEquals(new int[] {10, 20}, row.topIds);
+        increment(row, 30, 1, 2);
+        assertArrayEquals(new int[] {10, 30}, row.topIds);
+
+        // 30 passes 10 for first place
+        increment(row, 30, 1, 2);
+        assertArrayEquals(new int[] {30, 10}, row.topIds);
+
+        // 10 overtakes 30 again
+        increment(row, 10, 2, 2);
+        assertArrayEquals(new int[] {10, 30}, row.topIds);
+    }
+
+    @Test
+    void topKMatchesBruteForceOverRandomIncrements() {
+        Random random = new Random(42);
+        int k = 5;
+        CoPurchaseRecommender.CoPurchaseRow row = new CoPurchaseRecommender.CoPurchaseRow();
+        Map<Integer, Integer> counts = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            // Skewed ids so a few products keep trading places at the top
+            int productId = 1 + (int) Math.floor(Math.pow(random.nextDouble(), 2) * 60);
+            row.increment(productId, k);
+            counts.merge(productId, 1, Integer::sum);
+
+            if (step % 97 == 0) {
+                assertTopK(row.topIds, counts, k);
+            }
+        }
+        assertTopK(row.topIds, counts, k);
+    }
+
+    private static void increment(CoPurchaseRecommender.CoPurchaseRow row, int productId, int times, int k) {
+        for (int i = 0; i < times; i++) {
+            row.increment(productId, k);
+        }
+    }
+
+    // Ties may resolve either way, so compare the counts the top-k holds rather than the ids
+    private static void assertTopK(int[] topIds, Map<Integer, Integer> counts, int k) {
+        int[] expected = counts.values().stream()
+                .sorted((a, b) -> Integer.compare(b, a))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int[] actual = Arrays.stream(topIds).map(counts::get).toArray();
+        assertEquals(Math.min(k, counts.size()), topIds.length);
+        assertArrayEquals(expected, actual);
+        assertEquals(topIds.length, Arrays.stream(topIds).distinct().count());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.sales_savy.service;
+
+import com.example.sales_savy.dto.BulkProductUpdate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the service against an in-memory products table that evaluates the UPDATE's
+ * parameters the way the SQL does, including the stock guard in the WHERE clause.
+ */
+class ProductBulkUpdateServiceTest {
+
+    private final Map<Integer, Integer> stockById = new HashMap<>();
+    private ProductBulkUpdateService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stockById.put(1, 10);
+        stockById.put(2, 3);
+        stockById.put(3, 0);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> executeBatch(invocation.getArgument(1)));
+
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(namedParameterJdbcTemplate.queryForList(anyString(), any(MapSqlParameterSource.class), eq(Integer.class)))
+                .thenAnswer(invocation -> {
+                    MapSqlParameterSource params = invocation.getArgument(1);
+                    List<Integer> found = new ArrayList<>();
+                    for (Object id : (Collection<?>) params.getValue("ids")) {
+                        if (stockById.containsKey(id)) {
+                            found.add((Integer) id);
+                        }
+                    }
+                    return found;
+                });
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        service = new ProductBulkUpdateService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "namedParameterJdbcTemplate", namedParameterJdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "maxRows", 100);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reportsEachRowsOutcomeInRequestOrder() {
+        Map<String, Object> report = service.applyUpdates(List.of(
+                delta(1, -4),          // 10 -> 6
+                delta(2, -5),          // would go to -2
+                delta(99, 1),          // no such product
+                absolute(3, 7),        // 0 -> 7
+                price(99, "5.00"),     // no such product
+                delta(1, -6),          // 6 -> 0, sees the earlier change
+                new BulkProductUpdate())); // no productId
+
+        assertEquals(List.of("UPDATED", "INSUFFICIENT_STOCK", "NOT_FOUND", "UPDATED", "NOT_FOUND", "UPDATED", "INVALID"),
+                statuses(report));
+        assertEquals(0, stockById.get(1));
+        assertEquals(3, stockById.get(2));
+        assertEquals(7, stockById.get(3));
+
+        Map<String, Integer> counts = (Map<String, Integer>) report.get("counts");
+        assertEquals(3, counts.get("UPDATED"));
+        assertEquals(2, counts.get("NOT_FOUND"));
+        assertEquals(1, counts.get("INSUFFICIENT_STOCK"));
+        assertEquals(1, counts.get("INVALID"));
+    }
+
+    @Test
+    void priceOnlyUpdateIsNotStockGuarded() {
+        Map<String, Object> report = service.applyUpdates(List.of(price(3, "12.50")));
+        assertEquals(List.of("UPDATED"), statuses(report));
+    }
+
+    private int[] executeBatch(BatchPreparedStatementSetter setter) throws Exception {
+        int[] counts = new int[setter.getBatchSize()];
+        for (int i = 0; i < counts.length; i++) {
+            Object[] params = new Object[8];
+            PreparedStatement ps = mock(PreparedStatement.class);
+            doAnswer(inv -> params[(int) inv.getArgument(0)] = inv.getArgument(1)).when(ps).setInt(anyInt(), anyInt());
+            doAnswer(inv -> params[(int) inv.getArgument(0)] = null).when(ps).setNull(anyInt(), anyInt());
+            setter.setValues(ps, i);
+
+            // stock = COALESCE(absoluteStock, stock + COALESCE(stockDelta, 0)) WHERE product_id = ? AND new stock >= 0
+            Integer current = stockById.get((Integer) params[5]);
+            if (current == null) {
+                continue;
+            }
+            int next = params[1] != null ? (Integer) params[1] : current + (params[2] != null ? (Integer) params[2] : 0);
+            if (next >= 0) {
+                stockById.put((Integer) params[5], next);
+                counts[i] = 1;
+            }
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> statuses(Map<String, Object> report) {
+        List<String> statuses = new ArrayList<>();
+        for (Map<String, Object> result : (List<Map<String, Object>>) report.get("results")) {
+            statuses.add((String) result.get("status"));
+        }
+        return statuses;
+    }
+
+    private static BulkProductUpdate delta(int productId, int stockDelta) {
+        BulkProductUpdate update = new BulkProductUpdate();
+        update.setProductId(productId);
+        update.setStockDelta(stockDelta);
+        return update;
+    }
+
+    private static BulkProductUpdate absolute(int productId, int absoluteStock) {
+        BulkProductUpdate update = new BulkProductUpdate();
+        update.setProductId(productId);
+        update.setAbsoluteStock(absoluteStock);
+        return update;
+    }
+
+    private static BulkProductUpdate price(int productId, String price) {
+        BulkProductUpdate update = new BulkProductUpdate();
+        update.setProductId(productId);
+        update.setPrice(new BigDecimal(price));
+        return update;
+    }
+}
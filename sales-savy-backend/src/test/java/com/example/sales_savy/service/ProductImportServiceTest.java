@@ -0,0 +1,42 @@
+package com.example.sales_savy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductImportServiceTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertEquals(List.of("Desk Lamp", "19.99", "40"), ProductImportService.parseCsvLine("Desk Lamp,19.99,40"));
+    }
+
+    @Test
+    void keepsCommasInsideQuotes() {
+        assertEquals(List.of("Lamp, brass", "19.99"), ProductImportService.parseCsvLine("\"Lamp, brass\",19.99"));
+    }
+
+    @Test
+    void doubledQuoteInsideQuotesIsALiteralQuote() {
+        assertEquals(List.of("15\" Laptop Sleeve", "fits \"most\" models"),
+                ProductImportService.parseCsvLine("\"15\"\" Laptop Sleeve\",\"fits \"\"most\"\" models\""));
+    }
+
+    @Test
+    void quotedEmptyAndQuoteOnlyFields() {
+        assertEquals(List.of("", "\"", "x"), ProductImportService.parseCsvLine("\"\",\"\"\"\",x"));
+    }
+
+    @Test
+    void keepsEmptyAndTrailingFields() {
+        assertEquals(List.of("a", "", "c", ""), ProductImportService.parseCsvLine("a,,c,"));
+        assertEquals(List.of(""), ProductImportService.parseCsvLine(""));
+    }
+
+    @Test
+    void quotesMayOpenMidField() {
+        assertEquals(List.of("size 10\"", "ok"), ProductImportService.parseCsvLine("size \"10\"\"\",ok"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.sales_savy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrendingProductsServiceTest {
+
+    private static final double HALF_LIFE_MINUTES = 60;
+    private static final long HOUR = 3_600_000L;
+
+    private TrendingProductsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrendingProductsService();
+        ReflectionTestUtils.setField(service, "halfLifeMinutes", HALF_LIFE_MINUTES);
+        ReflectionTestUtils.setField(service, "orderWeight", 3.0);
+        ReflectionTestUtils.setField(service, "cartWeight", 1.0);
+        ReflectionTestUtils.setField(service, "maxUnitsPerEvent", 5);
+        ReflectionTestUtils.setField(service, "topK", 10);
+        ReflectionTestUtils.setField(service, "minScore", 0.01);
+    }
+
+    @Test
+    void logAddExpMatchesDirectSumWithoutOverflow() {
+        assertEquals(Math.log(Math.exp(1.5) + Math.exp(-2.0)), TrendingProductsService.logAddExp(1.5, -2.0), 1e-12);
+        assertEquals(Math.log(2) + 1000, TrendingProductsService.logAddExp(1000, 1000), 1e-9);
+        assertEquals(4.0, TrendingProductsService.logAddExp(Double.NEGATIVE_INFINITY, 4.0));
+    }
+
+    @Test
+    void decayedScoreMatchesDirectComputation() {
+        long now = System.currentTimeMillis();
+        long[] times = {now - 5 * HOUR, now - 90 * 60_000L, now - HOUR, now - 1_000, now + 30 * 60_000L};
+        double[] weights = {40, 2, 3, 1, 0.5};
+        for (int i = 0; i < times.length; i++) {
+            service.record(7, weights[i], times[i]);
+        }
+
+        service.refresh();
+        TrendingProductsService.Trending trending = service.getTrending();
+        double expected = 0;
+        for (int i = 0; i < times.length; i++) {
+            double ageHalfLives = (trending.getComputedAtMillis() - times[i]) / (HALF_LIFE_MINUTES * 60_000);
+            expected += weights[i] * Math.pow(2, -ageHalfLives);
+        }
+
+        assertEquals(1, trending.size());
+        assertEquals(7, trending.productIdAt(0));
+        assertEquals(expected, trending.scoreAt(0), expected * 1e-9);
+    }
+
+    @Test
+    void recentActivityOutranksOlderLargerActivity() {
+        long now = System.currentTimeMillis();
+        service.record(1, 10, now - 3 * HOUR); // decays to 1.25
+        service.record(2, 2, now);
+
+        service.refresh();
+        TrendingProductsService.Trending trending = service.getTrending();
+        assertEquals(2, trending.productIdAt(0));
+        assertEquals(1, trending.productIdAt(1));
+    }
+
+    @Test
+    void oneEventCountsForAtMostTheUnitCap() {
+        service.onCartItemAdded(new CartItemAddedEvent(5, 2_000_000_000, System.currentTimeMillis()));
+
+        service.refresh();
+        assertEquals(5.0, service.getTrending().scoreAt(0), 1e-3);
+    }
+
+    @Test
+    void fullyDecayedProductsArePruned() {
+        long now = System.currentTimeMillis();
+        service.record(1, 1, now - 24 * HOUR);
+        service.record(2, 1, now);
+
+        service.refresh();
+        assertEquals(1, service.getTrending().size());
+        assertEquals(1, service.getStats().get("trackedProducts"));
+
+        // A pruned product starts over from its next event
+        service.record(1, 4, now);
+        service.refresh();
+        assertEquals(1, service.getTrending().productIdAt(0));
+        assertEquals(4.0, service.getTrending().scoreAt(0), 1e-3);
+    }
+}